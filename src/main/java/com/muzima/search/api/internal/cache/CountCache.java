@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) 2014. The Trustees of Indiana University.
+ *
+ * This version of the code is licensed under the MPL 2.0 Open Source license with additional
+ * healthcare disclaimer. If the user is an entity intending to commercialize any application
+ * that uses this code in a for-profit venture, please contact the copyright holder.
+ */
+
+package com.muzima.search.api.internal.cache;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+
+/**
+ * Cache of the number of objects matching a normalized list of filters. The cached counts are dropped when the index
+ * reader is reopened after a commit.
+ */
+@Singleton
+public class CountCache extends GenerationalCache<String, Integer> {
+
+    @Inject(optional = true)
+    public void setMaximumSize(final @Named("configuration.lucene.cache.count.size") Integer maximumSize) {
+        super.setMaximumSize(maximumSize);
+    }
+}
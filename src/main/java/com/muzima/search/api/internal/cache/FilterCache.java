@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2014. The Trustees of Indiana University.
+ *
+ * This version of the code is licensed under the MPL 2.0 Open Source license with additional
+ * healthcare disclaimer. If the user is an entity intending to commercialize any application
+ * that uses this code in a for-profit venture, please contact the copyright holder.
+ */
+
+package com.muzima.search.api.internal.cache;
+
+import com.google.inject.Singleton;
+import com.muzima.search.api.internal.lucene.DiscriminatorFilter;
+import org.apache.lucene.index.Term;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry of the cached discriminator filters. A single filter is shared for each discriminator term, so the cached
+ * documents of a segment are reused across all queries of the class or resource.
+ */
+@Singleton
+public class FilterCache {
+
+    private final ConcurrentMap<Term, DiscriminatorFilter> filters = new ConcurrentHashMap<Term, DiscriminatorFilter>();
+
+    /**
+     * Get the cached filter of the discriminator term.
+     *
+     * @param term the discriminator term.
+     * @return the cached filter of the term.
+     */
+    public DiscriminatorFilter getFilter(final Term term) {
+        DiscriminatorFilter filter = filters.get(term);
+        if (filter == null) {
+            DiscriminatorFilter created = new DiscriminatorFilter(term);
+            filter = filters.putIfAbsent(term, created);
+            if (filter == null) {
+                filter = created;
+            }
+        }
+        return filter;
+    }
+
+    /**
+     * Get all cached filters.
+     *
+     * @return the cached filters.
+     */
+    public Collection<DiscriminatorFilter> getFilters() {
+        return filters.values();
+    }
+
+    /**
+     * Get the estimated memory used by all cached filters.
+     *
+     * @return the estimated memory used by the cached filters in bytes.
+     */
+    public long getMemoryUsage() {
+        long memoryUsage = 0;
+        for (DiscriminatorFilter filter : filters.values()) {
+            memoryUsage += filter.getMemoryUsage();
+        }
+        return memoryUsage;
+    }
+}
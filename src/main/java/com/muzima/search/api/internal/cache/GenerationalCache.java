@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2014. The Trustees of Indiana University.
+ *
+ * This version of the code is licensed under the MPL 2.0 Open Source license with additional
+ * healthcare disclaimer. If the user is an entity intending to commercialize any application
+ * that uses this code in a for-profit venture, please contact the copyright holder.
+ */
+
+package com.muzima.search.api.internal.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size bounded least recently used cache where every entry belongs to a generation of the index reader. The cache
+ * only hold entries of the latest generation it has seen, all entries are dropped as soon as an entry of a newer
+ * generation is added to the cache.
+ * <p/>
+ * Beside the number of entries, the cache can be bounded by the total weight of the entries. The weight of an entry
+ * is computed by the {@link #weigh(Object, Object)} method, which by default weigh every entry as zero.
+ */
+public class GenerationalCache<K, V> {
+
+    private static final int DEFAULT_MAXIMUM_SIZE = 256;
+
+    private int maximumSize = DEFAULT_MAXIMUM_SIZE;
+
+    private long maximumWeight = Long.MAX_VALUE;
+
+    private long weight;
+
+    private long generation = Long.MIN_VALUE;
+
+    private Map<K, V> entries = new LinkedHashMap<K, V>(16, 0.75f, true);
+
+    /**
+     * Set the maximum number of entries in the cache. Setting the maximum size to zero disable the cache.
+     *
+     * @param maximumSize the maximum number of entries in the cache.
+     */
+    public synchronized void setMaximumSize(final int maximumSize) {
+        this.maximumSize = maximumSize;
+        clear();
+    }
+
+    /**
+     * Set the maximum total weight of the entries in the cache.
+     *
+     * @param maximumWeight the maximum total weight of the entries in the cache.
+     */
+    public synchronized void setMaximumWeight(final long maximumWeight) {
+        this.maximumWeight = maximumWeight;
+        clear();
+    }
+
+    /**
+     * Set the order in which the entries are evicted from the cache. When ordered by access, the least recently used
+     * entry is evicted first, otherwise the oldest inserted entry is evicted first.
+     *
+     * @param accessOrder true to evict the least recently used entry, false to evict the oldest inserted entry.
+     */
+    public synchronized void setAccessOrder(final boolean accessOrder) {
+        this.entries = new LinkedHashMap<K, V>(16, 0.75f, accessOrder);
+        this.weight = 0;
+    }
+
+    /**
+     * Compute the weight of a cache entry. Subclasses bounding the cache by memory should return the estimated size
+     * of the entry.
+     *
+     * @param key   the key of the entry.
+     * @param value the value of the entry.
+     * @return the weight of the entry.
+     */
+    protected long weigh(final K key, final V value) {
+        return 0;
+    }
+
+    /**
+     * Get the cached value for the key in the generation.
+     *
+     * @param generation the generation of the index reader.
+     * @param key        the key of the entry.
+     * @return the cached value or null when the key is not cached for the generation.
+     */
+    public synchronized V get(final long generation, final K key) {
+        if (generation != this.generation) {
+            return null;
+        }
+        return entries.get(key);
+    }
+
+    /**
+     * Add a value to the cache. Adding a value of a newer generation drops all cached values of the older generation,
+     * while value of an older generation is ignored.
+     *
+     * @param generation the generation of the index reader.
+     * @param key        the key of the entry.
+     * @param value      the value of the entry.
+     */
+    public synchronized void put(final long generation, final K key, final V value) {
+        if (generation < this.generation || maximumSize <= 0) {
+            return;
+        }
+        if (generation > this.generation) {
+            clear();
+            this.generation = generation;
+        }
+        long entryWeight = weigh(key, value);
+        if (entryWeight > maximumWeight) {
+            return;
+        }
+        V previous = entries.put(key, value);
+        if (previous != null) {
+            weight -= weigh(key, previous);
+        }
+        weight += entryWeight;
+        evict();
+    }
+
+    /**
+     * Evict the eldest entries until the cache is within the size and weight bound.
+     */
+    private void evict() {
+        Iterator<Map.Entry<K, V>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext() && (entries.size() > maximumSize || weight > maximumWeight)) {
+            Map.Entry<K, V> eldest = iterator.next();
+            weight -= weigh(eldest.getKey(), eldest.getValue());
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Remove all entries from the cache.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    /**
+     * Get the number of cached entries.
+     *
+     * @return the number of cached entries.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Get the total weight of the cached entries.
+     *
+     * @return the total weight of the cached entries.
+     */
+    public synchronized long weight() {
+        return weight;
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2014. The Trustees of Indiana University.
+ *
+ * This version of the code is licensed under the MPL 2.0 Open Source license with additional
+ * healthcare disclaimer. If the user is an entity intending to commercialize any application
+ * that uses this code in a for-profit venture, please contact the copyright holder.
+ */
+
+package com.muzima.search.api.internal.cache;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import com.muzima.search.api.model.object.Searchable;
+import com.muzima.search.api.util.StringUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Cache of de-serialized objects keyed by the primary key term of the object, which is made of the resource name and
+ * the unique values of the object. Each object is tagged with the generation of the partition reader its json was
+ * loaded from, and is only returned for a document loaded from that same reader. A document updated by a later commit
+ * is loaded from a newer reader, so the outdated object is replaced instead of being returned.
+ * <p/>
+ * The same object instance is returned for every hit on the cache, so a caller modifying a returned object changes
+ * the object seen by all other callers. The cache is therefore disabled by default and only caches the objects of the
+ * resources explicitly listed in <code>configuration.lucene.cache.object.resources</code>, whose objects must be
+ * treated as read only by all callers.
+ */
+@Singleton
+public class ObjectCache extends GenerationalCache<String, ObjectCache.Entry> {
+
+    private static final String EVICTION_FIFO = "fifo";
+
+    private static final String RESOURCE_SEPARATOR = ",";
+
+    private static final int DEFAULT_ENTRY_OVERHEAD = 64;
+
+    private final Logger logger = LoggerFactory.getLogger(ObjectCache.class.getSimpleName());
+
+    private volatile Set<String> resources = Collections.emptySet();
+
+    /**
+     * The entries are tagged with the generation of their reader, the generation of the cache itself never changes.
+     */
+    private static final long CACHE_GENERATION = 0;
+
+    /**
+     * Cached object along with the generation of the reader and the length of the json it was created from.
+     */
+    public static final class Entry {
+
+        private final long generation;
+
+        private final Searchable object;
+
+        private final int length;
+
+        public Entry(final long generation, final Searchable object, final int length) {
+            this.generation = generation;
+            this.object = object;
+            this.length = length;
+        }
+
+        public long getGeneration() {
+            return generation;
+        }
+
+        public Searchable getObject() {
+            return object;
+        }
+
+        public int getLength() {
+            return length;
+        }
+    }
+
+    public ObjectCache() {
+        super.setMaximumSize(0);
+    }
+
+    @Inject(optional = true)
+    public void setMaximumSize(final @Named("configuration.lucene.cache.object.size") Integer maximumSize) {
+        super.setMaximumSize(maximumSize);
+    }
+
+    @Inject(optional = true)
+    public void setMaximumMemory(final @Named("configuration.lucene.cache.object.memory") Long maximumMemory) {
+        setMaximumWeight(maximumMemory);
+    }
+
+    @Inject(optional = true)
+    public void setEviction(final @Named("configuration.lucene.cache.object.eviction") String eviction) {
+        setAccessOrder(!EVICTION_FIFO.equalsIgnoreCase(eviction));
+    }
+
+    /**
+     * Set the names of the resources whose objects are cached, separated by comma.
+     *
+     * @param resources the names of the cached resources.
+     */
+    @Inject(optional = true)
+    public void setResources(final @Named("configuration.lucene.cache.object.resources") String resources) {
+        Set<String> names = new HashSet<String>();
+        if (!StringUtil.isEmpty(resources)) {
+            for (String name : resources.split(RESOURCE_SEPARATOR)) {
+                if (!StringUtil.isEmpty(name.trim())) {
+                    names.add(name.trim());
+                }
+            }
+        }
+        if (!names.isEmpty()) {
+            logger.warn("Objects of the resources {} are shared by all readers of the object cache, "
+                    + "the returned objects must not be modified.", names);
+        }
+        this.resources = Collections.unmodifiableSet(names);
+        clear();
+    }
+
+    /**
+     * Check whether the objects of the resource are cached.
+     *
+     * @param resourceName the name of the resource.
+     * @return true when the objects of the resource are cached.
+     */
+    public boolean isCached(final String resourceName) {
+        return resources.contains(resourceName);
+    }
+
+    /**
+     * Get the cached object of a document loaded from the partition reader of the generation.
+     *
+     * @param generation the generation of the partition reader the document was loaded from.
+     * @param key        the primary key term of the object.
+     * @return the cached object, or null when the object is not cached or was loaded from another reader.
+     */
+    public Searchable getObject(final long generation, final String key) {
+        Entry entry = get(CACHE_GENERATION, key);
+        if (entry == null || entry.getGeneration() != generation) {
+            return null;
+        }
+        return entry.getObject();
+    }
+
+    /**
+     * Cache the object de-serialized from a document loaded from the partition reader of the generation.
+     *
+     * @param generation the generation of the partition reader the document was loaded from.
+     * @param key        the primary key term of the object.
+     * @param object     the de-serialized object.
+     * @param length     the length of the json the object was de-serialized from.
+     */
+    public void putObject(final long generation, final String key, final Searchable object, final int length) {
+        put(CACHE_GENERATION, key, new Entry(generation, object, length));
+    }
+
+    /**
+     * Estimate the memory used by the cached object. The de-serialized object is assumed to be about the size of the
+     * json it was created from.
+     *
+     * @param key   the key of the entry.
+     * @param value the cached object.
+     * @return the estimated memory used by the entry in bytes.
+     */
+    @Override
+    protected long weigh(final String key, final Entry value) {
+        return DEFAULT_ENTRY_OVERHEAD + 2L * key.length() + 2L * value.getLength();
+    }
+}
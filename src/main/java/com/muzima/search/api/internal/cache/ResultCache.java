@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2014. The Trustees of Indiana University.
+ *
+ * This version of the code is licensed under the MPL 2.0 Open Source license with additional
+ * healthcare disclaimer. If the user is an entity intending to commercialize any application
+ * that uses this code in a for-profit venture, please contact the copyright holder.
+ */
+
+package com.muzima.search.api.internal.cache;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of the document ids returned by a query. The key of the cache is the query, the sort order and the requested
+ * page window, while the value is the list of matching document ids in the order they are returned. The cached ids
+ * are dropped when the index reader is reopened after a commit.
+ * <p/>
+ * The cache count the number of hits and misses, so the size of the cache can be tuned for the application.
+ */
+@Singleton
+public class ResultCache extends GenerationalCache<List<Object>, int[]> {
+
+    private static final long DEFAULT_MAXIMUM_MEMORY = 4L * 1024 * 1024;
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    public ResultCache() {
+        setMaximumWeight(DEFAULT_MAXIMUM_MEMORY);
+    }
+
+    @Inject(optional = true)
+    public void setMaximumSize(final @Named("configuration.lucene.cache.result.size") Integer maximumSize) {
+        super.setMaximumSize(maximumSize);
+    }
+
+    @Inject(optional = true)
+    public void setMaximumMemory(final @Named("configuration.lucene.cache.result.memory") Long maximumMemory) {
+        setMaximumWeight(maximumMemory);
+    }
+
+    @Override
+    public int[] get(final long generation, final List<Object> key) {
+        int[] value = super.get(generation, key);
+        if (value == null) {
+            missCount.incrementAndGet();
+        } else {
+            hitCount.incrementAndGet();
+        }
+        return value;
+    }
+
+    /**
+     * Estimate the memory used by the cached document ids.
+     *
+     * @param key   the query, sort and page window of the entry.
+     * @param value the cached document ids.
+     * @return the estimated memory used by the entry in bytes.
+     */
+    @Override
+    protected long weigh(final List<Object> key, final int[] value) {
+        return 4L * value.length;
+    }
+
+    /**
+     * Get the number of lookups which found the document ids in the cache.
+     *
+     * @return the number of cache hits.
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Get the number of lookups which didn't find the document ids in the cache.
+     *
+     * @return the number of cache misses.
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Reset the hit and miss counters of the cache.
+     */
+    public void resetStatistics() {
+        hitCount.set(0);
+        missCount.set(0);
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2014. The Trustees of Indiana University.
+ *
+ * This version of the code is licensed under the MPL 2.0 Open Source license with additional
+ * healthcare disclaimer. If the user is an entity intending to commercialize any application
+ * that uses this code in a for-profit venture, please contact the copyright holder.
+ */
+
+package com.muzima.search.api.internal.lucene;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.util.FixedBitSet;
+
+import java.io.IOException;
+
+/**
+ * Collector to record the id of every matching document in a bit set. The collector doesn't score or sort the hits,
+ * it only takes a single bit per document in the index.
+ */
+public class BitSetCollector extends Collector {
+
+    private final FixedBitSet bits;
+
+    private int docBase;
+
+    private int totalHits;
+
+    public BitSetCollector(final int maxDoc) {
+        this.bits = new FixedBitSet(maxDoc);
+    }
+
+    @Override
+    public void setScorer(final Scorer scorer) throws IOException {
+    }
+
+    @Override
+    public void collect(final int doc) throws IOException {
+        bits.set(docBase + doc);
+        totalHits++;
+    }
+
+    @Override
+    public void setNextReader(final IndexReader reader, final int docBase) throws IOException {
+        this.docBase = docBase;
+    }
+
+    @Override
+    public boolean acceptsDocsOutOfOrder() {
+        return true;
+    }
+
+    /**
+     * Get the bit set of the matching document ids.
+     *
+     * @return the bit set of the matching document ids.
+     */
+    public FixedBitSet getBits() {
+        return bits;
+    }
+
+    /**
+     * Get the number of matching documents.
+     *
+     * @return the number of matching documents.
+     */
+    public int getTotalHits() {
+        return totalHits;
+    }
+}
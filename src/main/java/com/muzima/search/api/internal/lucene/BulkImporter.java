@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2014. The Trustees of Indiana University.
+ *
+ * This version of the code is licensed under the MPL 2.0 Open Source license with additional
+ * healthcare disclaimer. If the user is an entity intending to commercialize any application
+ * that uses this code in a for-profit venture, please contact the copyright holder.
+ */
+
+package com.muzima.search.api.internal.lucene;
+
+import com.google.inject.Inject;
+import com.google.inject.name.Named;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pipeline to process a large list of objects using multiple worker threads. The calling thread feed the objects into
+ * a bounded queue, while the worker threads take the objects from the queue and process them concurrently. The bounded
+ * queue keep the memory used by the pipeline constant regardless of the number of objects.
+ * <p/>
+ * The first failure of a worker stops the pipeline and is thrown to the caller once all workers have stopped.
+ */
+public class BulkImporter {
+
+    /**
+     * Processing of a single object by a worker thread.
+     */
+    public interface Worker<T> {
+
+        void process(final T object) throws IOException;
+    }
+
+    private static final Object END_OF_QUEUE = new Object();
+
+    private static final int DEFAULT_QUEUE_SIZE = 1000;
+
+    private final Logger logger = LoggerFactory.getLogger(BulkImporter.class.getSimpleName());
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    private int queueSize = DEFAULT_QUEUE_SIZE;
+
+    @Inject(optional = true)
+    public void setThreads(final @Named("configuration.lucene.import.threads") Integer threads) {
+        this.threads = threads;
+    }
+
+    @Inject(optional = true)
+    public void setQueueSize(final @Named("configuration.lucene.import.queue") Integer queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    /**
+     * Process all objects using the worker threads.
+     *
+     * @param objects the objects to be processed.
+     * @param worker  the processing of a single object.
+     * @throws IOException when processing an object failed.
+     */
+    public <T> void process(final List<T> objects, final Worker<T> worker) throws IOException {
+        final BlockingQueue<Object> queue = new ArrayBlockingQueue<Object>(Math.max(1, queueSize));
+        final AtomicReference<IOException> failure = new AtomicReference<IOException>();
+        int workerCount = Math.max(1, Math.min(threads, objects.size()));
+
+        List<Thread> workers = new ArrayList<Thread>();
+        for (int i = 0; i < workerCount; i++) {
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public void run() {
+                    try {
+                        Object object = queue.take();
+                        while (object != END_OF_QUEUE) {
+                            if (failure.get() == null) {
+                                worker.process((T) object);
+                            }
+                            object = queue.take();
+                        }
+                    } catch (IOException e) {
+                        failure.compareAndSet(null, e);
+                        drain(queue);
+                    } catch (RuntimeException e) {
+                        failure.compareAndSet(null, new IOException("Unable to process object.", e));
+                        drain(queue);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }, "lucene-import-" + i);
+            workers.add(thread);
+            thread.start();
+        }
+
+        long start = System.nanoTime();
+        try {
+            for (T object : objects) {
+                if (failure.get() != null) {
+                    break;
+                }
+                while (!queue.offer(object, 100, TimeUnit.MILLISECONDS)) {
+                    if (failure.get() != null) {
+                        break;
+                    }
+                }
+            }
+            for (int i = 0; i < workerCount; i++) {
+                queue.put(END_OF_QUEUE);
+            }
+            for (Thread thread : workers) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            for (Thread thread : workers) {
+                thread.interrupt();
+            }
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while importing objects.");
+        }
+
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+
+        if (logger.isInfoEnabled()) {
+            double seconds = Math.max(1, System.nanoTime() - start) / 1000000000.0;
+            logger.info("Imported {} objects using {} threads at {} objects/sec.",
+                    new Object[]{objects.size(), workerCount, Math.round(objects.size() / seconds)});
+        }
+    }
+
+    /**
+     * Drain the remaining objects of a failed pipeline, keeping the end of queue marker for the other workers.
+     *
+     * @param queue the queue of the pipeline.
+     */
+    private void drain(final BlockingQueue<Object> queue) {
+        try {
+            Object object = queue.take();
+            while (object != END_OF_QUEUE) {
+                object = queue.take();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -12,11 +12,20 @@ import com.google.inject.Inject;
 import com.google.inject.name.Named;
 import com.jayway.jsonpath.JsonPath;
 import com.muzima.search.api.filter.Filter;
-import com.muzima.search.api.internal.provider.SearcherProvider;
+import com.muzima.search.api.internal.cache.CountCache;
+import com.muzima.search.api.internal.cache.FilterCache;
+import com.muzima.search.api.internal.cache.ObjectCache;
+import com.muzima.search.api.internal.cache.ResultCache;
+import com.muzima.search.api.internal.provider.SearcherManagerProvider;
 import com.muzima.search.api.internal.provider.WriterProvider;
 import com.muzima.search.api.model.object.Searchable;
+import com.muzima.search.api.model.object.WriteBatch;
+import com.muzima.search.api.resource.ObjectResource;
 import com.muzima.search.api.resource.Resource;
 import com.muzima.search.api.resource.SearchableField;
+import com.muzima.search.api.result.Cursor;
+import com.muzima.search.api.result.Page;
+import com.muzima.search.api.result.ResultIterator;
 import com.muzima.search.api.util.CollectionUtil;
 import com.muzima.search.api.util.StreamUtil;
 import com.muzima.search.api.util.StringUtil;
@@ -27,19 +36,32 @@ import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.MultiReader;
+import org.apache.lucene.index.SegmentReader;
 import org.apache.lucene.index.Term;
+import org.apache.lucene.index.TermDocs;
 import org.apache.lucene.queryParser.ParseException;
 import org.apache.lucene.queryParser.QueryParser;
 import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.ConstantScoreQuery;
+import org.apache.lucene.search.DocIdSet;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.FieldDoc;
 import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.PrefixQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
 import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.SortField;
 import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHitCountCollector;
 import org.apache.lucene.search.WildcardQuery;
+import org.apache.lucene.util.FixedBitSet;
+import org.apache.lucene.util.ReaderUtil;
 import org.apache.lucene.util.Version;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,8 +69,27 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.Reader;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class DefaultIndexer implements Indexer {
 
@@ -56,17 +97,127 @@ public class DefaultIndexer implements Indexer {
 
     private String defaultField;
 
-    private IndexSearcher indexSearcher;
+    private final ConcurrentMap<String, SearcherManager> searcherManagers =
+            new ConcurrentHashMap<String, SearcherManager>();
 
     @Inject
     private WriterProvider writerProvider;
 
     @Inject
-    private SearcherProvider searcherProvider;
+    private SearcherManagerProvider searcherManagerProvider;
 
     @Inject
     private Map<String, Resource> resourceRegistry;
 
+    @Inject
+    private CountCache countCache;
+
+    @Inject
+    private ObjectCache objectCache;
+
+    @Inject
+    private ResultCache resultCache;
+
+    @Inject
+    private FilterCache filterCache;
+
+    @Inject
+    private GroupCommitter groupCommitter;
+
+    @Inject
+    private BulkImporter bulkImporter;
+
+    @Inject
+    private WriteBehindQueue writeBehindQueue;
+
+    @Inject
+    private IndexMaintainer indexMaintainer;
+
+    @Inject
+    private SearcherRefresher searcherRefresher;
+
+    /**
+     * In near real time mode, the changes are visible to the queries as soon as they are written, but their commit is
+     * delayed by up to <code>configuration.lucene.nrt.commit</code> milliseconds (default to 5000). The changes
+     * acknowledged during that window are lost when the process crashes before the commit, call the flush method of
+     * the service to make them durable right away.
+     */
+    @Inject(optional = true)
+    @Named("configuration.lucene.nrt")
+    private Boolean nearRealTime = Boolean.FALSE;
+
+    /**
+     * The delay in milliseconds between a change in near real time mode and its commit.
+     */
+    @Inject(optional = true)
+    @Named("configuration.lucene.nrt.commit")
+    private Long nearRealTimeCommit = DEFAULT_NRT_COMMIT;
+
+    @Inject(optional = true)
+    @Named("configuration.lucene.partitioned")
+    private Boolean partitioned = Boolean.FALSE;
+
+    private final AtomicBoolean commitPending = new AtomicBoolean();
+
+    private ScheduledExecutorService commitScheduler;
+
+    /**
+     * The maximum staleness tolerated by the reads of each thread, or null to use the configured staleness.
+     */
+    private final ThreadLocal<Long> maxStaleness = new ThreadLocal<Long>();
+
+    private final GroupCommitter.Task commitTask = new GroupCommitter.Task() {
+        @Override
+        public void commit() throws IOException {
+            synchronized (writerLock) {
+                commitWriters();
+                publishChanges();
+            }
+        }
+    };
+
+    private final SearcherRefresher.Refresh searcherRefresh = new SearcherRefresher.Refresh() {
+        @Override
+        public void refresh() throws IOException {
+            reopenSearcher();
+        }
+    };
+
+    private final WriteBehindQueue.Committer writeBehindCommitter = new WriteBehindQueue.Committer() {
+        @Override
+        public void commit() throws IOException {
+            indexMaintainer.touch(maintenance);
+            groupCommitter.flush(commitTask);
+        }
+    };
+
+    private final IndexMaintainer.Maintenance maintenance = new IndexMaintainer.Maintenance() {
+        @Override
+        public List<String> getPartitions() {
+            return new ArrayList<String>(searcherManagers.keySet());
+        }
+
+        @Override
+        public IndexReader getReader(final String partition) throws IOException {
+            SearcherManager manager = searcherManagers.get(partition);
+            if (manager == null) {
+                return null;
+            }
+            return manager.acquire().getIndexReader();
+        }
+
+        @Override
+        public IndexWriter getWriter(final String partition) {
+            return writerProvider.getOpenWriter(partition);
+        }
+
+        @Override
+        public void commit() throws IOException {
+            indexMaintainer.touch(maintenance);
+            groupCommitter.flush(commitTask);
+        }
+    };
+
     private final QueryParser parser;
 
     private static final String DEFAULT_FIELD_JSON = "_json";
@@ -75,9 +226,61 @@ public class DefaultIndexer implements Indexer {
 
     private static final String DEFAULT_FIELD_RESOURCE = "_resource";
 
+    private static final String DEFAULT_FIELD_KEY = "_key";
+
+    /**
+     * Field added to the loaded documents of the cached resources, holding the generation of the partition reader the
+     * document was loaded from. The field is never indexed.
+     */
+    private static final String DEFAULT_FIELD_GENERATION = "_generation";
+
     private static final Integer DEFAULT_MAX_DOCUMENTS = 1;
 
-    private final Object searcherLock = new Object();
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private static final long DEFAULT_NRT_COMMIT = 5000;
+
+    private static final JsonPath ROOT_PATH = JsonPath.compile("$");
+
+    /**
+     * Lock coordinating the writers of the index. Readers only acquire the searcher published by the searcher manager,
+     * they only take this lock to open or reopen a near real time searcher from the index writers.
+     */
+    private final Object writerLock = new Object();
+
+    /**
+     * Lock guarding the opening and closing of the searcher manager.
+     */
+    private final Object managerLock = new Object();
+
+    /**
+     * Lock making the refresh of the searcher manager blocking, so a refresh requested after a commit always see the
+     * commit.
+     */
+    private final Object refreshLock = new Object();
+
+    private final Set<String> keyedResources = Collections.synchronizedSet(new HashSet<String>());
+
+    /**
+     * Names of the resources found with legacy documents. The answer is kept until documents of the resource are
+     * deleted or imported again, which are the only changes removing legacy documents.
+     */
+    private final Set<String> legacyResources = Collections.synchronizedSet(new HashSet<String>());
+
+    /**
+     * Names of the resources changed by the write batch being applied, or null when no write batch is being applied.
+     * Guarded by the writer lock.
+     */
+    private Set<String> batchResources;
+
+    /**
+     * Generation of the partition readers seen by the caches. A reader get the next generation the first time it's
+     * seen, so the generation change whenever any partition is reopened. Closed readers are dropped from the map each
+     * time a new reader is seen.
+     */
+    private final ConcurrentMap<IndexReader, Long> readerGenerations = new ConcurrentHashMap<IndexReader, Long>();
+
+    private final AtomicLong generation = new AtomicLong();
 
     @Inject
     protected DefaultIndexer(final @Named("configuration.lucene.field.key") String defaultField,
@@ -88,291 +291,1231 @@ public class DefaultIndexer implements Indexer {
     }
 
     /**
-     * Get the singleton object of the resource registry.
+     * Get the singleton object of the resource registry.
+     *
+     * @return the resource registry object.
+     */
+    public Map<String, Resource> getResourceRegistry() {
+        return resourceRegistry;
+    }
+
+    /*
+     * Private Getter and Setter section **
+     */
+
+    private TopDocs searchTopDocs(final IndexSearcher searcher, final Query query, final Integer maxDocuments,
+                                  final Sort sort) throws IOException {
+        if (sort == null) {
+            return searcher.search(query, maxDocuments);
+        }
+        return searcher.search(query, maxDocuments, sort);
+    }
+
+    private IndexWriter createIndexWriter(final Resource resource, final Term keyTerm, final Object jsonObject)
+            throws IOException {
+        return writerProvider.get(getPartition(resource, keyTerm, jsonObject));
+    }
+
+    /**
+     * Delete the documents matching the query from all partitions of the resource.
+     *
+     * @param resource the resource of the documents.
+     * @param queries  the queries matching the documents.
+     * @throws IOException when deleting the documents failed.
+     */
+    private void deleteDocuments(final Resource resource, final Query... queries) throws IOException {
+        for (String partition : getPartitions(resource)) {
+            writerProvider.get(partition).deleteDocuments(queries);
+        }
+    }
+
+    /**
+     * Commit the pending changes of the writers of all open partitions.
+     *
+     * @throws IOException when committing the changes failed.
+     */
+    private void commitWriters() throws IOException {
+        for (IndexWriter writer : writerProvider.getWriters()) {
+            writer.commit();
+        }
+    }
+
+    /**
+     * Roll back the uncommitted changes of the writers of all open partitions.
+     *
+     * @throws IOException when rolling back the changes failed.
+     */
+    private void rollbackWriters() throws IOException {
+        writerProvider.rollback();
+        // the searcher managers of the near real time mode are bound to the rolled back writers.
+        closeSearcherManagers();
+    }
+
+    /**
+     * Get the partition holding the documents of the resource. When the index is partitioned, every resource has its
+     * own partition named after the resource, otherwise all resources share the empty partition.
+     *
+     * @param resource the resource.
+     * @return the name of the partition.
+     */
+    protected String getPartition(final Resource resource) {
+        return Boolean.TRUE.equals(partitioned) ? resource.getName() : StringUtil.EMPTY;
+    }
+
+    /**
+     * Get the partition holding the document of a single object. All objects of a resource are written to the
+     * partition of the resource.
+     *
+     * @param resource   the resource of the object.
+     * @param keyTerm    the primary key term of the object, null when the object has no primary key.
+     * @param jsonObject the json object, null when the object is only known by its primary key term.
+     * @return the name of the partition.
+     */
+    protected String getPartition(final Resource resource, final Term keyTerm, final Object jsonObject) {
+        return getPartition(resource);
+    }
+
+    /**
+     * Get the partitions searched by a query on the resource.
+     *
+     * @param resource the resource.
+     * @return the names of the partitions.
+     */
+    protected List<String> getPartitions(final Resource resource) {
+        return Collections.singletonList(getPartition(resource));
+    }
+
+    /**
+     * Get the partitions searched by a query on the class. When the index is partitioned, these are the partitions of
+     * the registered resources of the class.
+     *
+     * @param clazz the class.
+     * @return the names of the partitions.
+     */
+    protected List<String> getPartitions(final Class<?> clazz) {
+        if (!Boolean.TRUE.equals(partitioned)) {
+            return Collections.singletonList(StringUtil.EMPTY);
+        }
+        List<String> partitions = new ArrayList<String>();
+        for (Resource resource : getResourceRegistry().values()) {
+            if (resource.getSearchable().getName().equals(clazz.getName())) {
+                partitions.add(getPartition(resource));
+            }
+        }
+        return partitions;
+    }
+
+    /**
+     * Get the searcher manager of a partition, opening it on the first call. Once the searcher manager is open,
+     * getting it doesn't take any lock. In near real time mode, the searcher manager is opened from the index writer
+     * and the opening hold the writer lock, same as {@link #reopenSearcher()}.
+     *
+     * @param partition the name of the partition.
+     * @return the searcher manager.
+     * @throws IOException when opening the index failed.
+     */
+    private SearcherManager getSearcherManager(final String partition) throws IOException {
+        SearcherManager manager = searcherManagers.get(partition);
+        if (manager == null) {
+            if (Boolean.TRUE.equals(nearRealTime)) {
+                synchronized (writerLock) {
+                    manager = openSearcherManager(partition);
+                }
+            } else {
+                manager = openSearcherManager(partition);
+            }
+        }
+        return manager;
+    }
+
+    private SearcherManager openSearcherManager(final String partition) throws IOException {
+        synchronized (managerLock) {
+            SearcherManager manager = searcherManagers.get(partition);
+            if (manager == null) {
+                manager = searcherManagerProvider.get(partition);
+                searcherManagers.put(partition, manager);
+            }
+            return manager;
+        }
+    }
+
+    /**
+     * Acquire the current index searcher of the partitions. The searcher must be released using
+     * {@link #releaseSearcher(IndexSearcher)} once the caller is done with it, the readers of the searcher stay open
+     * until then even when the searcher is replaced by a newer searcher. Searching more than one partition combine
+     * the current readers of the partitions into a single reader.
+     *
+     * @param partitions the names of the partitions.
+     * @return the current index searcher.
+     * @throws IOException when opening the index failed.
+     */
+    private IndexSearcher acquireSearcher(final List<String> partitions) throws IOException {
+        if (searcherRefresher.isEnabled()) {
+            Long staleness = maxStaleness.get();
+            searcherRefresher.refresh(searcherRefresh,
+                    (staleness == null) ? searcherRefresher.getMaxStaleness() : staleness);
+        }
+        if (partitions.size() == 1) {
+            return getSearcherManager(partitions.get(0)).acquire();
+        }
+
+        List<IndexSearcher> searchers = new ArrayList<IndexSearcher>();
+        try {
+            IndexReader[] readers = new IndexReader[partitions.size()];
+            for (int i = 0; i < readers.length; i++) {
+                IndexSearcher searcher = getSearcherManager(partitions.get(i)).acquire();
+                searchers.add(searcher);
+                readers[i] = searcher.getIndexReader();
+            }
+            // the multi reader hold its own reference of the partition readers until the multi reader is released.
+            return createSearcher(new MultiReader(readers, false));
+        } finally {
+            for (IndexSearcher searcher : searchers) {
+                releaseSearcher(searcher);
+            }
+        }
+    }
+
+    /**
+     * Create the searcher combining the readers of several partitions.
+     *
+     * @param reader the reader combining the partition readers.
+     * @return the index searcher.
+     */
+    protected IndexSearcher createSearcher(final IndexReader reader) {
+        return new IndexSearcher(reader);
+    }
+
+    /**
+     * Release the index searcher acquired using {@link #acquireSearcher(java.util.List)}. The reader of the searcher
+     * is closed when the searcher was replaced and this was the last reference to it.
+     *
+     * @param searcher the acquired index searcher.
+     * @throws IOException when closing the reader failed.
+     */
+    private void releaseSearcher(final IndexSearcher searcher) throws IOException {
+        // same as SearcherManager.release(), without depending on the searcher manager still being open.
+        searcher.getIndexReader().decRef();
+    }
+
+    /**
+     * Open an index searcher on the uncommitted changes of the writers of the partitions. The searcher must be
+     * released using {@link #releaseSearcher(IndexSearcher)}, which close the readers opened from the writers.
+     *
+     * @param partitions the names of the partitions.
+     * @return the index searcher seeing the uncommitted changes.
+     * @throws IOException when opening the readers failed.
+     */
+    private IndexSearcher openWriterSearcher(final List<String> partitions) throws IOException {
+        IndexReader[] readers = new IndexReader[partitions.size()];
+        try {
+            for (int i = 0; i < readers.length; i++) {
+                readers[i] = IndexReader.open(writerProvider.get(partitions.get(i)), true);
+            }
+            return createSearcher(new MultiReader(readers, true));
+        } catch (IOException e) {
+            for (IndexReader reader : readers) {
+                if (reader != null) {
+                    reader.close();
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Close the searcher managers of all partitions. The readers are closed once the in-flight queries release them,
+     * and the next query open a new searcher manager.
+     *
+     * @throws IOException when closing a searcher manager failed.
+     */
+    private void closeSearcherManagers() throws IOException {
+        synchronized (managerLock) {
+            IOException exception = null;
+            for (SearcherManager manager : searcherManagers.values()) {
+                try {
+                    manager.close();
+                } catch (IOException e) {
+                    exception = e;
+                }
+            }
+            searcherManagers.clear();
+            if (exception != null) {
+                throw exception;
+            }
+        }
+    }
+
+    /**
+     * Get the key identifying the partition readers of the searcher. The key is part of the cache keys, so cached
+     * values are only shared by queries on the same readers.
+     *
+     * @param searcher the index searcher.
+     * @return the generations of the partition readers of the searcher.
+     */
+    private List<Long> getReaderKey(final IndexSearcher searcher) {
+        IndexReader reader = searcher.getIndexReader();
+        IndexReader[] readers = (reader instanceof MultiReader)
+                ? reader.getSequentialSubReaders() : new IndexReader[]{reader};
+        List<Long> readerKey = new ArrayList<Long>(readers.length);
+        for (IndexReader partitionReader : readers) {
+            readerKey.add(getReaderGeneration(partitionReader));
+        }
+        return readerKey;
+    }
+
+    /**
+     * Get the generation of a partition reader, giving the next generation to a reader seen for the first time.
+     *
+     * @param reader the partition reader.
+     * @return the generation of the reader.
+     */
+    private long getReaderGeneration(final IndexReader reader) {
+        Long readerGeneration = readerGenerations.get(reader);
+        if (readerGeneration == null) {
+            Long nextGeneration = generation.incrementAndGet();
+            readerGeneration = readerGenerations.putIfAbsent(reader, nextGeneration);
+            if (readerGeneration == null) {
+                readerGeneration = nextGeneration;
+                Iterator<IndexReader> readers = readerGenerations.keySet().iterator();
+                while (readers.hasNext()) {
+                    if (readers.next().getRefCount() <= 0) {
+                        readers.remove();
+                    }
+                }
+            }
+        }
+        return readerGeneration;
+    }
+
+    /**
+     * Get the generation of the caches. Cached values are dropped once a newer partition reader is seen.
+     *
+     * @return the generation of the newest partition reader seen.
+     */
+    private long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Wait until the changes applied to the shared index writer are committed. Changes of concurrent writers are
+     * grouped into a single commit, after which the index searcher is reopened to see the changes.
+     *
+     * @param changes the number of changed documents.
+     * @throws IOException when committing the changes failed.
+     */
+    private void commit(final int changes) throws IOException {
+        indexMaintainer.touch(maintenance);
+        if (Boolean.TRUE.equals(nearRealTime)) {
+            publishChanges();
+            scheduleCommit();
+        } else {
+            groupCommitter.await(groupCommitter.register(changes), commitTask);
+        }
+    }
+
+    /**
+     * Schedule the commit of the changes visible to the near real time searcher, unless a commit is already scheduled.
+     * The scheduled commit is skipped when the changes are committed by a flush in the mean time.
+     */
+    private void scheduleCommit() {
+        if (commitPending.compareAndSet(false, true)) {
+            getCommitScheduler().schedule(new Runnable() {
+                @Override
+                public void run() {
+                    synchronized (writerLock) {
+                        if (commitPending.compareAndSet(true, false)) {
+                            try {
+                                commitWriters();
+                            } catch (IOException e) {
+                                logger.error("Unable to commit the near real time changes.", e);
+                            }
+                        }
+                    }
+                }
+            }, nearRealTimeCommit, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private synchronized ScheduledExecutorService getCommitScheduler() {
+        if (commitScheduler == null) {
+            ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                    Thread thread = new Thread(runnable, "lucene-nrt-commit");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            // a commit still scheduled when the indexer is closed is replaced by the final commit of the close.
+            scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+            commitScheduler = scheduler;
+        }
+        return commitScheduler;
+    }
+
+    /**
+     * Stop the commit scheduler, dropping the scheduled commit and waiting for a running commit to complete. The
+     * scheduler is created again by the next change in near real time mode.
+     */
+    private void stopCommitScheduler() {
+        ScheduledExecutorService scheduler;
+        synchronized (this) {
+            scheduler = commitScheduler;
+            commitScheduler = null;
+        }
+        if (scheduler != null) {
+            scheduler.shutdown();
+            try {
+                scheduler.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Make the changes visible to the index searcher. The searcher is reopened on the calling thread, unless the
+     * searcher is refreshed in the background, in which case the refresher is only signalled.
+     *
+     * @throws IOException when reopening the reader failed.
+     */
+    private void publishChanges() throws IOException {
+        if (searcherRefresher.isEnabled()) {
+            searcherRefresher.signal(searcherRefresh);
+        } else {
+            reopenSearcher();
+        }
+    }
+
+    /**
+     * Reopen the index searchers of the partitions which changed. In near real time mode, the readers are reopened
+     * from the index writers, which make the uncommitted changes visible, so the reopen hold the writer lock to never
+     * publish a half applied write batch. The replaced readers are closed once the in-flight queries release them.
+     *
+     * @throws IOException when reopening the reader failed.
+     */
+    private void reopenSearcher() throws IOException {
+        if (Boolean.TRUE.equals(nearRealTime)) {
+            synchronized (writerLock) {
+                refreshSearcherManagers();
+            }
+        } else {
+            refreshSearcherManagers();
+        }
+    }
+
+    private void refreshSearcherManagers() throws IOException {
+        synchronized (refreshLock) {
+            for (SearcherManager manager : searcherManagers.values()) {
+                manager.maybeRefresh();
+            }
+        }
+    }
+
+    /*
+     * Low level lucene operation **
+     */
+
+    /**
+     * Create a single term lucene query. The value for the query will be surrounded with single quote.
+     *
+     * @param field the field on which the query should be performed.
+     * @param value the value for the field
+     * @return the valid lucene query for single term.
+     */
+    private TermQuery createQuery(final String field, final String value) {
+        return new TermQuery(new Term(field, StringUtil.lowerCase(value)));
+    }
+
+    /**
+     * Create lucene query string based on the searchable field name and value. The value for the searchable field
+     * will be retrieved from the <code>object</code>. This method will try to create a unique query in the case
+     * where a searchable field is marked as unique. Otherwise the method will create a query string using all
+     * available searchable fields.
+     *
+     * @param object the json object from which the value for each field can be retrieved from.
+     * @param fields the searchable fields definition
+     * @return query string which could be either a unique or full searchable field based query.
+     */
+    private BooleanQuery createObjectQuery(final Object object, final List<SearchableField> fields) {
+        boolean uniqueExists = false;
+        BooleanQuery fullBooleanQuery = new BooleanQuery();
+        BooleanQuery uniqueBooleanQuery = new BooleanQuery();
+        for (SearchableField searchableField : fields) {
+            Object valueObject = searchableField.getPath().read(object);
+            if (valueObject != null) {
+                String value = valueObject.toString();
+                TermQuery query = createQuery(searchableField.getName(), value);
+
+                fullBooleanQuery.add(query, BooleanClause.Occur.MUST);
+
+                if (searchableField.isUnique()) {
+                    uniqueBooleanQuery.add(query, BooleanClause.Occur.MUST);
+                    uniqueExists = true;
+                }
+            }
+        }
+
+        if (uniqueExists) {
+            return uniqueBooleanQuery;
+        } else {
+            return fullBooleanQuery;
+        }
+    }
+
+    /**
+     * Create query fragment for a certain class. Calling this method will ensure the documents returned will of the
+     * <code>clazz</code> type meaning the documents can be converted into object of type <code>clazz</code>. Converting
+     * the documents need to be performed by getting the correct resource object from the document and then calling the
+     * serialize method or getting the algorithm class and perform the serialization process from the algorithm object.
+     * <p/>
+     * Example use case: please retrieve all patients data. This should be performed by querying all object of certain
+     * class type  because the caller is interested only in the type of object, irregardless of the resources from
+     * which the objects are coming from.
+     *
+     * @param clazz the clazz for which the query is based on
+     * @return the base query for a resource
+     */
+    private ConstantScoreQuery createClassQuery(final Class<?> clazz) {
+        if (Boolean.TRUE.equals(partitioned)) {
+            return new ConstantScoreQuery(new MatchAllDocsQuery());
+        }
+        return new ConstantScoreQuery(createClassFilter(clazz));
+    }
+
+    /**
+     * Get the cached filter of all documents of a certain class type. When the index is partitioned, the partitions of
+     * the class only contain documents of the class and no filter is needed.
+     *
+     * @param clazz the clazz for which the filter is based on
+     * @return the cached filter for the class, or null when the index is partitioned
+     */
+    private DiscriminatorFilter createClassFilter(final Class<?> clazz) {
+        if (Boolean.TRUE.equals(partitioned)) {
+            return null;
+        }
+        return filterCache.getFilter(createClassTerm(clazz));
+    }
+
+    private Term createClassTerm(final Class<?> clazz) {
+        return new Term(DEFAULT_FIELD_CLASS, clazz.getName());
+    }
+
+    /**
+     * Create query for a certain resource object. Calling this method will ensure the documents returned will be
+     * documents that was indexed using the resource object.
+     *
+     * @param resource the resource for which the query is based on
+     * @return the base query for a resource
+     */
+    private ConstantScoreQuery createResourceQuery(final Resource resource) {
+        if (Boolean.TRUE.equals(partitioned)) {
+            return new ConstantScoreQuery(new MatchAllDocsQuery());
+        }
+        return new ConstantScoreQuery(createResourceFilter(resource));
+    }
+
+    /**
+     * Get the cached filter of all documents indexed using a certain resource object. When the index is partitioned,
+     * the partition of the resource only contain documents of the resource and no filter is needed.
+     *
+     * @param resource the resource for which the filter is based on
+     * @return the cached filter for the resource, or null when the index is partitioned
+     */
+    private DiscriminatorFilter createResourceFilter(final Resource resource) {
+        if (Boolean.TRUE.equals(partitioned)) {
+            return null;
+        }
+        return filterCache.getFilter(createResourceTerm(resource));
+    }
+
+    private Term createResourceTerm(final Resource resource) {
+        return new Term(DEFAULT_FIELD_RESOURCE, resource.getName());
+    }
+
+    /**
+     * Create the non scoring query of a filter only query. Filter only queries don't need the relevance score of the
+     * matching documents, so the documents are matched without computing the score and returned in index order.
+     *
+     * @param query the filter only query.
+     * @return the non scoring query.
+     */
+    private ConstantScoreQuery createFilterQuery(final Query query) {
+        return new ConstantScoreQuery(query);
+    }
+
+    /**
+     * Create the lucene sort object from the list of sort fields.
+     *
+     * @param sortFields the list of fields to sort results by.
+     * @return the sort object or null when there's no sort field defined.
+     */
+    private Sort createSort(final List<SortField> sortFields) {
+        if (CollectionUtil.isEmpty(sortFields)) {
+            return null;
+        }
+        SortField[] sortFieldsArray = new SortField[sortFields.size()];
+        sortFields.toArray(sortFieldsArray);
+        return new Sort(sortFieldsArray);
+    }
+
+    /**
+     * Count the number of documents matching the <code>query</code> without collecting any of the hits.
+     *
+     * @param searcher the searcher used to execute the query.
+     * @param query    the lucene query.
+     * @return total number of documents matching the query.
+     * @throws IOException when the search encounter error.
+     */
+    protected int countDocuments(final IndexSearcher searcher, final Query query) throws IOException {
+        TotalHitCountCollector collector = new TotalHitCountCollector();
+        searcher.search(query, collector);
+        return collector.getTotalHits();
+    }
+
+    /**
+     * Create the normalized key of a list of filters. Filters without value are ignored and the remaining filters are
+     * ordered, so the same set of filters always produce the same key regardless of the order in the list.
+     *
+     * @param discriminator the class or resource term the filters are applied to.
+     * @param filters       the list of filters.
+     * @return the normalized key of the filters.
+     */
+    private String createFilterKey(final Term discriminator, final List<Filter> filters) {
+        StringBuilder builder = new StringBuilder(discriminator.toString());
+        for (Term term : normalizeFilters(filters)) {
+            builder.append(KEY_SEPARATOR).append(term.field()).append(KEY_SEPARATOR).append(term.text());
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Count the number of documents matching the <code>query</code>. The count is cached using the normalized filter
+     * key and the generation of the index readers, so repeating the count is a lookup until the next commit.
+     *
+     * @param partitions the partitions searched by the query.
+     * @param filterKey  the normalized filter key of the query.
+     * @param query      the lucene query.
+     * @return total number of documents matching the query.
+     * @throws IOException when the search encounter error.
+     */
+    private int countDocuments(final List<String> partitions, final String filterKey, final Query query)
+            throws IOException {
+        IndexSearcher searcher = acquireSearcher(partitions);
+        try {
+            String key = filterKey + KEY_SEPARATOR + getReaderKey(searcher);
+            long version = getGeneration();
+            Integer count = countCache.get(version, key);
+            if (count == null) {
+                count = countDocuments(searcher, query);
+                countCache.put(version, key, count);
+            }
+            return count;
+        } finally {
+            releaseSearcher(searcher);
+        }
+    }
+
+    /**
+     * Search the local lucene repository for documents with similar information with information inside the
+     * <code>query</code>. Search can return multiple documents with similar information or empty list when no
+     * document have similar information with the <code>query</code>.
+     *
+     * @param partitions the partitions searched by the query.
+     * @param query      the lucene query.
+     * @return objects with similar information with the query.
+     * @throws IOException when the search encounter error.
+     */
+    private List<Document> findDocuments(final List<String> partitions, final Query query) throws IOException {
+        return searchDocuments(partitions, query, null, null, null);
+    }
+
+    /**
+     * Search the local lucene repository for documents with similar information with information inside the
+     * <code>query</code>. Search can return multiple documents with similar information or empty list when no
+     * document have similar information with the <code>query</code>. Returned documents are sorted by parameters defined
+     * in sortFields list.
+     *
+     * @param partitions the partitions searched by the query.
+     * @param query      the lucene query.
+     * @param sortFields the list of fields to sort results by.
+     * @return objects with similar information with the query.
+     * @throws IOException when the search encounter error.
+     */
+    private List<Document> findDocuments(final List<String> partitions, final Query query,
+                                         final List<SortField> sortFields) throws IOException {
+        return searchDocuments(partitions, query, createSort(sortFields), null, null);
+    }
+
+    /**
+     * Search the local lucene repository for documents with similar information with information inside the
+     * <code>query</code>. Search can return multiple documents with similar information or empty list when no
+     * document have similar information with the <code>query</code>.
+     *
+     * @param partitions the partitions searched by the query.
+     * @param query      the lucene query.
+     * @param page       the page number.
+     * @param pageSize   the size of the page.
+     * @return objects with similar information with the query.
+     * @throws IOException when the search encounter error.
+     */
+    private List<Document> findDocuments(final List<String> partitions, final Query query, final Integer page,
+                                         final Integer pageSize) throws IOException {
+        return searchDocuments(partitions, query, null, page, pageSize);
+    }
+
+    /**
+     * Search the local lucene repository for documents with similar information with information inside the
+     * <code>query</code>. Search can return multiple documents with similar information or empty list when no
+     * document have similar information with the <code>query</code>. Returned documents are sorted by parameters defined
+     * in sortFields list.
+     *
+     * @param partitions the partitions searched by the query.
+     * @param query      the lucene query.
+     * @param sortFields the list of fields to sort results by.
+     * @param page       the page number.
+     * @param pageSize   the size of the page.
+     * @return objects with similar information with the query.
+     * @throws IOException when the search encounter error.
+     */
+    private List<Document> findDocuments(final List<String> partitions, final Query query,
+                                         final List<SortField> sortFields, final Integer page,
+                                         final Integer pageSize) throws IOException {
+        return searchDocuments(partitions, query, createSort(sortFields), page, pageSize);
+    }
+
+    /**
+     * Search the local lucene repository for documents matching the <code>query</code>. The ids of the matching
+     * documents are taken from the result cache when the same query, sort and page window was executed since the last
+     * commit.
+     *
+     * @param partitions the partitions searched by the query.
+     * @param query      the lucene query.
+     * @param sort       the sort order of the returned documents, null to sort by relevance.
+     * @param page       the page number, null to return all matching documents.
+     * @param pageSize   the size of the page, null to return all matching documents.
+     * @return objects with similar information with the query.
+     * @throws IOException when the search encounter error.
+     */
+    private List<Document> searchDocuments(final List<String> partitions, final Query query, final Sort sort,
+                                           final Integer page, final Integer pageSize) throws IOException {
+        List<Document> documents = new ArrayList<Document>();
+        IndexSearcher searcher = acquireSearcher(partitions);
+        try {
+            List<Object> key = Arrays.<Object>asList(query, sort, page, pageSize, getReaderKey(searcher));
+            long version = getGeneration();
+            int[] ids = resultCache.get(version, key);
+            if (ids == null) {
+                ids = searchDocumentIds(searcher, query, sort, page, pageSize);
+                resultCache.put(version, key, ids);
+            }
+            for (int id : ids) {
+                documents.add(loadDocument(searcher, id));
+            }
+        } finally {
+            releaseSearcher(searcher);
+        }
+        return documents;
+    }
+
+    /**
+     * Search the ids of the documents matching the <code>query</code>. The query is executed once and only the hits
+     * up to the end of the requested page are collected. When no page is requested, the hits are counted first
+     * (without collecting them) so the hit queue is sized to the exact number of matching documents.
+     * <p/>
+     * Unsorted non scoring queries are returned in index order. When no page is requested, their hits are collected
+     * into a bit set without going through a hit queue at all.
+     *
+     * @param searcher the index searcher.
+     * @param query    the lucene query.
+     * @param sort     the sort order of the returned documents, null to sort by relevance.
+     * @param page     the page number, null to return all matching documents.
+     * @param pageSize the size of the page, null to return all matching documents.
+     * @return the ids of the documents in the requested page.
+     * @throws IOException when the search encounter error.
+     */
+    private int[] searchDocumentIds(final IndexSearcher searcher, final Query query, final Sort sort,
+                                    final Integer page, final Integer pageSize) throws IOException {
+        boolean indexOrder = (sort == null && query instanceof ConstantScoreQuery);
+        int start = 0;
+        int end;
+        if (page != null && pageSize != null) {
+            start = Math.max(0, pageSize * (page - 1));
+            end = pageSize * page;
+        } else if (indexOrder) {
+            return collectDocumentIds(searcher, query);
+        } else {
+            end = countDocuments(searcher, query);
+        }
+
+        if (end <= start) {
+            return new int[0];
+        }
+
+        TopDocs docs = searchTopDocs(searcher, query, end, indexOrder ? Sort.INDEXORDER : sort);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Query matched {} documents, collecting documents {} to {}.",
+                    new Object[]{docs.totalHits, start, end});
+        }
+        ScoreDoc[] hits = docs.scoreDocs;
+        int[] ids = new int[Math.max(0, hits.length - start)];
+        for (int i = start; i < hits.length; i++) {
+            ids[i - start] = hits[i].doc;
+        }
+        return ids;
+    }
+
+    /**
+     * Collect the ids of all documents matching the <code>query</code> in index order.
+     *
+     * @param searcher the index searcher.
+     * @param query    the lucene query.
+     * @return the ids of the matching documents in index order.
+     * @throws IOException when the search encounter error.
+     */
+    private int[] collectDocumentIds(final IndexSearcher searcher, final Query query) throws IOException {
+        BitSetCollector collector = collectDocuments(searcher, query);
+        FixedBitSet bits = collector.getBits();
+        int[] ids = new int[collector.getTotalHits()];
+        int doc = -1;
+        for (int i = 0; i < ids.length; i++) {
+            doc = bits.nextSetBit(doc + 1);
+            ids[i] = doc;
+        }
+        return ids;
+    }
+
+    /**
+     * Create the signature of a query and its sort order. The signature is used to make sure a cursor is only used to
+     * resume the query which created it.
+     *
+     * @param query the lucene query.
+     * @param sort  the sort order of the query, null when the query is sorted by relevance.
+     * @return the signature of the query.
+     */
+    private String createSignature(final Query query, final Sort sort) {
+        if (sort == null) {
+            return query.toString();
+        }
+        return query.toString() + " " + sort.toString();
+    }
+
+    /**
+     * Get the segments of the searcher, in the order of their document ids. Each segment is qualified by the index of
+     * the partition reader holding it, and by its number of documents, which never change until the segment is merged.
      *
-     * @return the resource registry object.
+     * @param searcher the index searcher.
+     * @return the segments of the searcher.
      */
-    public Map<String, Resource> getResourceRegistry() {
-        return resourceRegistry;
+    private List<String> getSegments(final IndexSearcher searcher) {
+        IndexReader reader = searcher.getIndexReader();
+        IndexReader[] readers = (reader instanceof MultiReader)
+                ? reader.getSequentialSubReaders() : new IndexReader[]{reader};
+        List<String> segments = new ArrayList<String>();
+        for (int i = 0; i < readers.length; i++) {
+            List<IndexReader> leaves = new ArrayList<IndexReader>();
+            ReaderUtil.gatherSubReaders(leaves, readers[i]);
+            for (IndexReader leaf : leaves) {
+                String name = (leaf instanceof SegmentReader)
+                        ? ((SegmentReader) leaf).getSegmentName()
+                        : String.valueOf(System.identityHashCode(leaf.getCoreCacheKey()));
+                segments.add(i + ":" + name + ":" + leaf.maxDoc());
+            }
+        }
+        return segments;
     }
 
-    /*
-     * Private Getter and Setter section **
+    /**
+     * Resolve the document id of the last hit of a cursor in the segments of the current searcher. The offset of the
+     * hit inside its segment never changes, but the segments before it may be added, dropped or merged by commits
+     * made after the cursor was created. The position of the hit is only kept when its segment still exists and
+     * every segment now ordered before it in its partition was already ordered before it, so the hits which came
+     * before the cursor still do. Segments added to or removed from the other partitions don't move the hit.
+     *
+     * @param cursorSegments the segments of the index when the cursor was created.
+     * @param doc            the document id of the last hit of the cursor.
+     * @param segments       the segments of the current searcher.
+     * @return the document id of the hit in the current searcher, or -1 when the segments of the cursor were merged.
      */
+    private int resolveDoc(final List<String> cursorSegments, final int doc, final List<String> segments) {
+        String segment = null;
+        int offset = doc;
+        Set<String> previousSegments = new HashSet<String>();
+        for (String cursorSegment : cursorSegments) {
+            int maxDoc = getMaxDoc(cursorSegment);
+            if (offset < maxDoc) {
+                segment = cursorSegment;
+                break;
+            }
+            offset -= maxDoc;
+            previousSegments.add(cursorSegment);
+        }
+        if (segment == null) {
+            return -1;
+        }
 
-    private TopDocs searchTopDocs(final Query query, final Integer maxDocuments) throws IOException {
-        return searchTopDocs(query, maxDocuments, null);
-    }
-
-    private TopDocs searchTopDocs(final Query query, final Integer maxDocuments,Sort sort) throws IOException {
-        IndexSearcher searcher = createIndexSearcher();
-        if (sort == null) {
-            return searcher.search(query, maxDocuments);
+        String partition = segment.substring(0, segment.indexOf(':') + 1);
+        int docBase = 0;
+        for (String currentSegment : segments) {
+            if (currentSegment.equals(segment)) {
+                return docBase + offset;
+            }
+            if (currentSegment.startsWith(partition) && !previousSegments.contains(currentSegment)) {
+                return -1;
+            }
+            docBase += getMaxDoc(currentSegment);
         }
-        return searcher.search(query, maxDocuments, sort);
+        return -1;
     }
 
-    private IndexWriter createIndexWriter() throws IOException {
-        // might need to make this a synchronized call.
-        // or allowing the caller to get new index searcher every time.
-        return writerProvider.get();
+    private int getMaxDoc(final String segment) {
+        return Integer.parseInt(segment.substring(segment.lastIndexOf(':') + 1));
     }
 
-    private IndexSearcher createIndexSearcher() throws IOException {
-        // might need to make this a synchronized call.
-        // or allowing the caller to get new index searcher every time.
+    /**
+     * Search the local lucene repository for the page of documents matching the <code>query</code> which come after
+     * the last hit of the <code>cursor</code>. Only a single page of hits is collected, so the cost of retrieving a
+     * page doesn't depend on the number of pages retrieved before it.
+     *
+     * @param partitions the partitions searched by the query.
+     * @param query      the lucene query.
+     * @param sort       the sort order of the returned documents, null to sort by relevance.
+     * @param cursor     the cursor returned with the previous page, null to retrieve the first page.
+     * @param pageSize   the size of the page.
+     * @return the page of documents and the cursor pointing to the next page.
+     * @throws IOException when the search encounter error, the cursor was created for a different query or the
+     *                     segments of the cursor were merged.
+     */
+    private Page<Document> searchDocumentsAfter(final List<String> partitions, final Query query, final Sort sort,
+                                                final Cursor cursor, final Integer pageSize) throws IOException {
+        List<Document> documents = new ArrayList<Document>();
+        String signature = createSignature(query, sort);
+
+        int position = 0;
+        if (cursor != null) {
+            if (!signature.equals(cursor.getSignature())) {
+                throw new IOException("Unable to resume query: '" + signature + "' using cursor created for query: '"
+                        + cursor.getSignature() + "'.");
+            }
+            position = cursor.getPosition();
+        }
+
+        TopDocs docs;
+        List<String> segments;
+        IndexSearcher searcher = acquireSearcher(partitions);
         try {
-            if (indexSearcher == null) {
-                synchronized (searcherLock) {
-                    indexSearcher = searcherProvider.get();
+            segments = getSegments(searcher);
+            ScoreDoc after = null;
+            if (cursor != null) {
+                int doc = resolveDoc(cursor.getSegments(), cursor.getDoc(), segments);
+                if (doc < 0) {
+                    throw new IOException("Unable to resume query: '" + signature + "', the index segments of the "
+                            + "cursor were merged. Restart the query from the first page.");
+                }
+                if (cursor.getValues() == null) {
+                    after = new ScoreDoc(doc, cursor.getScore());
+                } else {
+                    after = new FieldDoc(doc, cursor.getScore(), cursor.getValues());
                 }
             }
-        } catch (IOException e) {
-            // silently ignoring this exception.
+            if (sort == null) {
+                docs = searcher.searchAfter(after, query, pageSize);
+            } else {
+                SortedAfterCollector collector = new SortedAfterCollector(sort, (FieldDoc) after, pageSize);
+                searcher.search(query, collector);
+                docs = collector.topDocs();
+            }
+            for (ScoreDoc hit : docs.scoreDocs) {
+                documents.add(loadDocument(searcher, hit.doc));
+            }
+        } finally {
+            releaseSearcher(searcher);
         }
-        return indexSearcher;
-    }
 
-    private void commit(final IndexWriter writer) throws IOException {
-        if (writer != null) {
-            writer.commit();
-            writer.close();
+        ScoreDoc[] hits = docs.scoreDocs;
+        position = position + hits.length;
 
-            synchronized (searcherLock) {
-                IndexReader reader = indexSearcher.getIndexReader();
-                IndexReader openedReader = IndexReader.openIfChanged(reader);
-                if (openedReader != null && reader != openedReader) {
-                    indexSearcher = new IndexSearcher(openedReader);
-                }
-            }
+        Cursor nextCursor = null;
+        if (hits.length > 0 && position < docs.totalHits) {
+            ScoreDoc last = hits[hits.length - 1];
+            Object[] values = (last instanceof FieldDoc) ? ((FieldDoc) last).fields : null;
+            nextCursor = new Cursor(signature, segments, last.doc, last.score, values, position);
         }
+        return new Page<Document>(documents, nextCursor, docs.totalHits);
     }
 
-    /*
-     * Low level lucene operation **
-     */
-
     /**
-     * Create a single term lucene query. The value for the query will be surrounded with single quote.
+     * Serialize the object into the parsed json tree. Object resources serialize the object directly into the tree
+     * when their algorithm supports it, other resources serialize the object into a String which is parsed back.
      *
-     * @param field the field on which the query should be performed.
-     * @param value the value for the field
-     * @return the valid lucene query for single term.
+     * @param object   the object.
+     * @param resource the resource descriptor used to register the object.
+     * @return the json tree representation of the object.
+     * @throws IOException when the serialization encounter error.
      */
-    private TermQuery createQuery(final String field, final String value) {
-        return new TermQuery(new Term(field, StringUtil.lowerCase(value)));
+    private Object serializeTree(final Searchable object, final Resource resource) throws IOException {
+        if (resource instanceof ObjectResource) {
+            return ((ObjectResource) resource).serializeTree(object);
+        }
+        return ROOT_PATH.read(resource.serialize(object));
     }
 
     /**
-     * Create lucene query string based on the searchable field name and value. The value for the searchable field
-     * will be retrieved from the <code>object</code>. This method will try to create a unique query in the case
-     * where a searchable field is marked as unique. Otherwise the method will create a query string using all
-     * available searchable fields.
+     * Load the stored document of a hit. When the objects of the resource of the document are cached, the document is
+     * tagged with the generation of the partition reader holding it, so the cached object is only reused for the same
+     * version of the document.
      *
-     * @param object the json object from which the value for each field can be retrieved from.
-     * @param fields the searchable fields definition
-     * @return query string which could be either a unique or full searchable field based query.
+     * @param searcher the searcher used to execute the query.
+     * @param doc      the document id of the hit.
+     * @return the stored document.
+     * @throws IOException when loading the document failed.
      */
-    private BooleanQuery createObjectQuery(final Object object, final List<SearchableField> fields) {
-        boolean uniqueExists = false;
-        BooleanQuery fullBooleanQuery = new BooleanQuery();
-        BooleanQuery uniqueBooleanQuery = new BooleanQuery();
-        for (SearchableField searchableField : fields) {
-            Object valueObject = JsonPath.read(object, searchableField.getExpression());
-            if (valueObject != null) {
-                String value = valueObject.toString();
-                TermQuery query = createQuery(searchableField.getName(), value);
-
-                fullBooleanQuery.add(query, BooleanClause.Occur.MUST);
-
-                if (searchableField.isUnique()) {
-                    uniqueBooleanQuery.add(query, BooleanClause.Occur.MUST);
-                    uniqueExists = true;
+    private Document loadDocument(final IndexSearcher searcher, final int doc) throws IOException {
+        Document document = searcher.doc(doc);
+        if (objectCache.isCached(document.get(DEFAULT_FIELD_RESOURCE))) {
+            IndexReader reader = searcher.getIndexReader();
+            IndexReader partitionReader = reader;
+            if (reader instanceof MultiReader) {
+                int docBase = 0;
+                for (IndexReader subReader : reader.getSequentialSubReaders()) {
+                    partitionReader = subReader;
+                    docBase += subReader.maxDoc();
+                    if (doc < docBase) {
+                        break;
+                    }
                 }
             }
+            String generation = String.valueOf(getReaderGeneration(partitionReader));
+            document.add(new Field(DEFAULT_FIELD_GENERATION, generation, Field.Store.YES, Field.Index.NO));
         }
-
-        if (uniqueExists) {
-            return uniqueBooleanQuery;
-        } else {
-            return fullBooleanQuery;
-        }
+        return document;
     }
 
     /**
-     * Create query fragment for a certain class. Calling this method will ensure the documents returned will of the
-     * <code>clazz</code> type meaning the documents can be converted into object of type <code>clazz</code>. Converting
-     * the documents need to be performed by getting the correct resource object from the document and then calling the
-     * serialize method or getting the algorithm class and perform the serialization process from the algorithm object.
-     * <p/>
-     * Example use case: please retrieve all patients data. This should be performed by querying all object of certain
-     * class type  because the caller is interested only in the type of object, irregardless of the resources from
-     * which the objects are coming from.
+     * De-serialize the json stored in the document into the object described by the resource. When the objects of the
+     * resource are cached, the de-serialized object is taken from the object cache using the stored primary key term
+     * of the document and the generation of the reader it was loaded from. Documents without primary key term are
+     * always de-serialized.
      *
-     * @param clazz the clazz for which the query is based on
-     * @return the base query for a resource
+     * @param document the lucene document.
+     * @param resource the resource descriptor used to register the object.
+     * @return the de-serialized object.
+     * @throws IOException when the de-serialization encounter error.
      */
-    private TermQuery createClassQuery(final Class clazz) {
-        return new TermQuery(new Term(DEFAULT_FIELD_CLASS, clazz.getName()));
+    private Searchable deserialize(final Document document, final Resource resource) throws IOException {
+        String json = document.get(DEFAULT_FIELD_JSON);
+        String key = document.get(DEFAULT_FIELD_KEY);
+        String generation = document.get(DEFAULT_FIELD_GENERATION);
+        if (key == null || generation == null || !objectCache.isCached(resource.getName())) {
+            return resource.deserialize(json);
+        }
+        long readerGeneration = Long.parseLong(generation);
+        Searchable object = objectCache.getObject(readerGeneration, key);
+        if (object == null) {
+            object = resource.deserialize(json);
+            objectCache.putObject(readerGeneration, key, object, json.length());
+        }
+        return object;
     }
 
     /**
-     * Create query for a certain resource object. Calling this method will ensure the documents returned will be
-     * documents that was indexed using the resource object.
+     * Collect the ids of all documents matching the <code>query</code> into a bit set. The stored documents are not
+     * loaded, only a single bit per document in the index is allocated.
      *
-     * @param resource the resource for which the query is based on
-     * @return the base query for a resource
+     * @param searcher the searcher used to execute the query.
+     * @param query    the lucene query.
+     * @return the collector holding the matching document ids.
+     * @throws IOException when the search encounter error.
      */
-    private TermQuery createResourceQuery(final Resource resource) {
-        return new TermQuery(new Term(DEFAULT_FIELD_RESOURCE, resource.getName()));
+    private BitSetCollector collectDocuments(final IndexSearcher searcher, final Query query) throws IOException {
+        BitSetCollector collector = new BitSetCollector(searcher.getIndexReader().maxDoc());
+        searcher.search(query, collector);
+        return collector;
     }
 
     /**
-     * Search the local lucene repository for documents with similar information with information inside the
-     * <code>query</code>. Search can return multiple documents with similar information or empty list when no
-     * document have similar information with the <code>query</code>.
+     * Create iterator over the objects matching the <code>query</code>. The resource used to de-serialize each object
+     * is looked up from the resource registry using the resource name stored in the document.
      *
      * @param query the lucene query.
-     * @return objects with similar information with the query.
+     * @param clazz the expected return type of the object.
+     * @return iterator over the objects matching the query.
      * @throws IOException when the search encounter error.
      */
-    private List<Document> findDocuments(final Query query) throws IOException {
-        List<Document> documents = new ArrayList<Document>();
-        IndexSearcher searcher = createIndexSearcher();
-        // Iterating over all hits:
-        // * http://stackoverflow.com/questions/3300265/lucene-3-iterating-over-all-hits
-        if (searcher != null) {
-            TopDocs countDocs = searchTopDocs(query, DEFAULT_MAX_DOCUMENTS);
-            TopDocs docs = searchTopDocs(query, countDocs.totalHits > 0 ? countDocs.totalHits : DEFAULT_MAX_DOCUMENTS);
-            ScoreDoc[] hits = docs.scoreDocs;
-            for (ScoreDoc hit : hits) {
-                documents.add(searcher.doc(hit.doc));
-            }
+    private <T> ResultIterator<T> iterateDocuments(final Query query, final Class<T> clazz) throws IOException {
+        IndexSearcher searcher = acquireSearcher(getPartitions(clazz));
+        BitSetCollector collector;
+        try {
+            collector = collectDocuments(searcher, query);
+        } catch (IOException e) {
+            releaseSearcher(searcher);
+            throw e;
         }
-        return documents;
+        return new DocumentIterator<T>(searcher, collector.getBits(), collector.getTotalHits()) {
+            @Override
+            protected Document load(final IndexSearcher searcher, final int doc) throws IOException {
+                return loadDocument(searcher, doc);
+            }
+
+            @Override
+            protected T convert(final Document document) throws IOException {
+                String resourceName = document.get(DEFAULT_FIELD_RESOURCE);
+                Resource resource = getResourceRegistry().get(resourceName);
+                return clazz.cast(deserialize(document, resource));
+            }
+        };
     }
 
     /**
-     * Search the local lucene repository for documents with similar information with information inside the
-     * <code>query</code>. Search can return multiple documents with similar information or empty list when no
-     * document have similar information with the <code>query</code>. Returned documents are sorted by parameters defined
-     * in sortFields list.
+     * Create iterator over the objects matching the <code>query</code>. Each object will be de-serialized using the
+     * <code>resource</code>.
      *
-     * @param query the lucene query.
-     * @param sortFields the list of fields to sort results by.
-     * @return objects with similar information with the query.
+     * @param query    the lucene query.
+     * @param resource the resource used to de-serialize the objects.
+     * @return iterator over the objects matching the query.
      * @throws IOException when the search encounter error.
      */
-    private List<Document> findDocuments(final Query query, List<SortField> sortFields) throws IOException {
-        List<Document> documents = new ArrayList<Document>();
-        IndexSearcher searcher = createIndexSearcher();
-        // Iterating over all hits:
-        // * http://stackoverflow.com/questions/3300265/lucene-3-iterating-over-all-hits
-        if (searcher != null && sortFields.size() > 0) {
-            SortField[] sortFieldsArray = new SortField[sortFields.size()];
-            sortFields.toArray(sortFieldsArray);
-            Sort sort = new Sort(sortFieldsArray);
-            TopDocs countDocs = searchTopDocs(query, DEFAULT_MAX_DOCUMENTS);
-            TopDocs docs = searchTopDocs(query, countDocs.totalHits > 0 ? countDocs.totalHits : DEFAULT_MAX_DOCUMENTS, sort);
-            ScoreDoc[] hits = docs.scoreDocs;
-            for (ScoreDoc hit : hits) {
-                documents.add(searcher.doc(hit.doc));
-            }
+    private ResultIterator<Searchable> iterateDocuments(final Query query, final Resource resource) throws IOException {
+        IndexSearcher searcher = acquireSearcher(getPartitions(resource));
+        BitSetCollector collector;
+        try {
+            collector = collectDocuments(searcher, query);
+        } catch (IOException e) {
+            releaseSearcher(searcher);
+            throw e;
         }
-        return documents;
+        return new DocumentIterator<Searchable>(searcher, collector.getBits(), collector.getTotalHits()) {
+            @Override
+            protected Document load(final IndexSearcher searcher, final int doc) throws IOException {
+                return loadDocument(searcher, doc);
+            }
+
+            @Override
+            protected Searchable convert(final Document document) throws IOException {
+                return deserialize(document, resource);
+            }
+        };
     }
 
     /**
-     * Search the local lucene repository for documents with similar information with information inside the
-     * <code>query</code>. Search can return multiple documents with similar information or empty list when no
-     * document have similar information with the <code>query</code>.
+     * Create the primary key term of an object. The primary key term is made of the resource name and the values of
+     * all unique searchable fields of the resource, so a single term identify the object within the index.
      *
-     * @param query    the lucene query.
-     * @param page     the page number.
-     * @param pageSize the size of the page.
-     * @return objects with similar information with the query.
-     * @throws IOException when the search encounter error.
+     * @param jsonObject the json object from which the value for each field can be retrieved from.
+     * @param resource   the resource definition used to register the json to lucene index.
+     * @return the primary key term or null when the resource doesn't define unique field or a unique value is missing.
      */
-    private List<Document> findDocuments(final Query query, final Integer page, Integer pageSize) throws IOException {
-        List<Document> documents = new ArrayList<Document>();
-        IndexSearcher searcher = createIndexSearcher();
-        // Iterating over all hits:
-        // * http://stackoverflow.com/questions/3300265/lucene-3-iterating-over-all-hits
-        if (searcher != null) {
-            TopDocs countDocs = searchTopDocs(query, DEFAULT_MAX_DOCUMENTS);
-
-            TopDocs docs = searchTopDocs(query, countDocs.totalHits > 0 ? countDocs.totalHits : DEFAULT_MAX_DOCUMENTS);
-
-            ScoreDoc[] hits = docs.scoreDocs;
-            for (int i = (pageSize * (page - 1)); i < pageSize * page; i++) {
-                if (i < hits.length) {
-                    ScoreDoc hit = hits[i];
-                    documents.add(searcher.doc(hit.doc));
-                } else {
-                    break;
+    private Term createKeyTerm(final Object jsonObject, final Resource resource) {
+        boolean uniqueExists = false;
+        StringBuilder builder = new StringBuilder(resource.getName());
+        for (SearchableField searchableField : resource.getSearchableFields()) {
+            if (searchableField.isUnique()) {
+                Object valueObject = searchableField.getPath().read(jsonObject);
+                if (valueObject == null) {
+                    return null;
                 }
+                builder.append(KEY_SEPARATOR).append(StringUtil.lowerCase(valueObject.toString()));
+                uniqueExists = true;
             }
         }
-        return documents;
+        return uniqueExists ? new Term(DEFAULT_FIELD_KEY, builder.toString()) : null;
     }
 
     /**
-     * Search the local lucene repository for documents with similar information with information inside the
-     * <code>query</code>. Search can return multiple documents with similar information or empty list when no
-     * document have similar information with the <code>query</code>. Returned documents are sorted by parameters defined
-     *      * in sortFields list.
+     * Check whether the index contain documents of the resource written before the primary key term was introduced.
+     * Such documents can't be found using the primary key term, so objects of the resource must be matched using the
+     * unique searchable fields as long as the legacy documents exist. Once a resource has no legacy document, it will
+     * never get one again. A resource found with legacy documents is only checked again after its documents are
+     * deleted or imported, and a resource without unique field never use the primary key term so it's never checked.
      *
-     * @param query    the lucene query.
-     * @param sortFields the list of fields to sort results by.
-     * @param page     the page number.
-     * @param pageSize the size of the page.
-     * @return objects with similar information with the query.
+     * @param resource the resource definition used to register the json to lucene index.
+     * @return true when the index contain legacy documents of the resource.
      * @throws IOException when the search encounter error.
      */
-    private List<Document> findDocuments(final Query query, List<SortField> sortFields, final Integer page, Integer pageSize) throws IOException {
-        List<Document> documents = new ArrayList<Document>();
-        IndexSearcher searcher = createIndexSearcher();
-        // Iterating over all hits:
-        // * http://stackoverflow.com/questions/3300265/lucene-3-iterating-over-all-hits
-        if (searcher != null) {
-            TopDocs countDocs = searchTopDocs(query, DEFAULT_MAX_DOCUMENTS);
-
-            if (sortFields.size() > 0) {
-                SortField[] sortFieldsArray = new SortField[sortFields.size()];
-                sortFields.toArray(sortFieldsArray);
-                Sort sort = new Sort(sortFieldsArray);
-                TopDocs docs = searchTopDocs(query, countDocs.totalHits > 0 ? countDocs.totalHits : DEFAULT_MAX_DOCUMENTS, sort);
-
-                ScoreDoc[] hits = docs.scoreDocs;
-                for (int i = (pageSize * (page - 1)); i < pageSize * page; i++) {
-                    if (i < hits.length) {
-                        ScoreDoc hit = hits[i];
-                        documents.add(searcher.doc(hit.doc));
-                    } else {
-                        break;
-                    }
+    private boolean hasLegacyDocuments(final Resource resource) throws IOException {
+        if (keyedResources.contains(resource.getName())) {
+            return false;
+        }
+        if (legacyResources.contains(resource.getName())) {
+            return true;
+        }
+        if (!hasUniqueField(resource)) {
+            keyedResources.add(resource.getName());
+            return false;
+        }
+        IndexSearcher searcher = acquireSearcher(getPartitions(resource));
+        try {
+            int documents = countDocuments(searcher, createResourceQuery(resource));
+            PrefixQuery keyQuery = new PrefixQuery(new Term(DEFAULT_FIELD_KEY, resource.getName() + KEY_SEPARATOR));
+            if (documents > countDocuments(searcher, keyQuery)) {
+                legacyResources.add(resource.getName());
+                return true;
+            }
+        } finally {
+            releaseSearcher(searcher);
+        }
+        keyedResources.add(resource.getName());
+        return false;
+    }
+
+    private boolean hasUniqueField(final Resource resource) {
+        for (SearchableField searchableField : resource.getSearchableFields()) {
+            if (searchableField.isUnique()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Find the primary key terms having a committed document in the index. The terms are sought in sorted order using
+     * a single term docs enumeration, so a whole batch is resolved in one pass over the term dictionary.
+     *
+     * @param searcher the searcher of the batch.
+     * @param keyTerms the primary key terms.
+     * @return the primary key terms having a document in the index.
+     * @throws IOException when reading the index failed.
+     */
+    private Set<Term> findExistingKeys(final IndexSearcher searcher, final Collection<Term> keyTerms)
+            throws IOException {
+        Set<Term> existingKeys = new HashSet<Term>();
+        if (keyTerms.isEmpty()) {
+            return existingKeys;
+        }
+        TermDocs termDocs = searcher.getIndexReader().termDocs();
+        try {
+            for (Term keyTerm : new TreeSet<Term>(keyTerms)) {
+                termDocs.seek(keyTerm);
+                if (termDocs.next()) {
+                    existingKeys.add(keyTerm);
                 }
             }
+        } finally {
+            termDocs.close();
         }
-        return documents;
+        return existingKeys;
     }
+
     /**
-     * Write json representation of a single object as a single document entry inside Lucene index.
+     * Create the lucene document of a single object.
      *
      * @param jsonObject the json object to be written to the index
      * @param resource   the configuration to transform json to lucene document
-     * @param writer     the lucene index writer
-     * @throws java.io.IOException when writing document failed
+     * @param keyTerm    the primary key term of the object, null when the object has no primary key
+     * @return the lucene document of the object.
      */
-    private void writeObject(final Object jsonObject, final Resource resource, final IndexWriter writer)
-            throws IOException {
-
+    private Document createDocument(final Object jsonObject, final Resource resource, final Term keyTerm) {
         Document document = new Document();
         document.add(new Field(DEFAULT_FIELD_JSON, jsonObject.toString(), Field.Store.YES, Field.Index.NO));
         document.add(new Field(DEFAULT_FIELD_CLASS, resource.getSearchable().getName(), Field.Store.NO,
                 Field.Index.NOT_ANALYZED));
         document.add(new Field(DEFAULT_FIELD_RESOURCE, resource.getName(), Field.Store.YES,
                 Field.Index.NOT_ANALYZED));
+        if (keyTerm != null) {
+            document.add(new Field(DEFAULT_FIELD_KEY, keyTerm.text(), Field.Store.YES,
+                    Field.Index.NOT_ANALYZED_NO_NORMS));
+        }
 
         /*
          * TODO: a better way to write this to lucene probably using the algorithm.
@@ -382,7 +1525,7 @@ public class DefaultIndexer implements Indexer {
          * - Iterate over each property of the class (using bean utils?) and add each of them to the document.
          */
         for (SearchableField searchableField : resource.getSearchableFields()) {
-            Object valueObject = JsonPath.read(jsonObject, searchableField.getExpression());
+            Object valueObject = searchableField.getPath().read(jsonObject);
             if (valueObject instanceof JSONArray) {
                 JSONArray jsonArray = (JSONArray) valueObject;
                 for (Object arrayElement : jsonArray) {
@@ -406,53 +1549,124 @@ public class DefaultIndexer implements Indexer {
         if (logger.isDebugEnabled()) {
             logger.debug("Writing document: {}", document);
         }
+        return document;
+    }
 
-        writer.addDocument(document);
+    /**
+     * Write json representation of a single object as a single document entry inside Lucene index.
+     *
+     * @param jsonObject the json object to be written to the index
+     * @param resource   the configuration to transform json to lucene document
+     * @throws java.io.IOException when writing document failed
+     */
+    private void writeObject(final Object jsonObject, final Resource resource) throws IOException {
+        Term keyTerm = createKeyTerm(jsonObject, resource);
+        IndexWriter writer = createIndexWriter(resource, keyTerm, jsonObject);
+        writer.addDocument(createDocument(jsonObject, resource, keyTerm));
     }
 
     /**
-     * Delete an entry from the lucene index. The method will search for a single entry in the index (throwing
-     * IOException when more than one index match the object).
+     * Delete an entry from the lucene index. When the object has a primary key term and the resource has no legacy
+     * document, the object is deleted using the primary key term. Otherwise the object is deleted using a query on
+     * the unique searchable fields, or all searchable fields when the resource doesn't define unique field, in all
+     * partitions of the resource.
      *
-     * @param jsonObject  the json object to be deleted.
-     * @param resource    the resource definition used to register the json to lucene index.
-     * @param indexWriter the index writer used to delete the index.
+     * @param jsonObject the json object to be deleted.
+     * @param resource   the resource definition used to register the json to lucene index.
+     * @param legacy     whether the index contain legacy documents of the resource.
      * @throws IOException when other error happens during the deletion process.
      */
-    private void deleteObject(final Object jsonObject, final Resource resource, final IndexWriter indexWriter)
+    private void deleteObject(final Object jsonObject, final Resource resource, final boolean legacy)
             throws IOException {
+        Term keyTerm = createKeyTerm(jsonObject, resource);
+        if (keyTerm != null && !legacy) {
+            createIndexWriter(resource, keyTerm, jsonObject).deleteDocuments(keyTerm);
+            return;
+        }
+
         BooleanQuery query = createObjectQuery(jsonObject, resource.getSearchableFields());
         query.add(createResourceQuery(resource), BooleanClause.Occur.MUST);
 
         if (logger.isDebugEnabled()) {
             logger.debug("Query deleteObject(): {}", query.toString());
         }
+        deleteDocuments(resource, query);
+    }
 
-        IndexSearcher searcher = createIndexSearcher();
-        TopDocs docs = searchTopDocs(query, DEFAULT_MAX_DOCUMENTS);
-        // only delete object if we can uniquely identify the object
-//        if (docs.totalHits == 1) {
-            indexWriter.deleteDocuments(query);
-//        } else if (docs.totalHits > 1) {
-//            throw new IOException("Unable to uniquely identify an object using the json object in the repository.");
-//        }
+    /**
+     * Check whether the primary key term of the resource is made of the default key field only, in which case the
+     * primary key term of an object can be created from the key of the object.
+     *
+     * @param resource the resource definition used to register the json to lucene index.
+     * @return true when the default key field is the only unique field of the resource.
+     */
+    private boolean isKeyedByDefaultField(final Resource resource) {
+        boolean keyed = false;
+        for (SearchableField searchableField : resource.getSearchableFields()) {
+            if (searchableField.isUnique()) {
+                if (!searchableField.getName().equals(defaultField)) {
+                    return false;
+                }
+                keyed = true;
+            }
+        }
+        return keyed;
     }
 
     /**
-     * Update an object inside the lucene index with a new data. Updating process practically means deleting old object
-     * and then adding the new object.
+     * Update an object inside the lucene index with a new data. When the object has a primary key term and the
+     * resource has no legacy document, the object is replaced in a single <code>updateDocument</code> call. Otherwise
+     * updating process practically means deleting old object and then adding the new object.
      *
-     * @param jsonObject  the json object to be updated.
-     * @param resource    the resource definition used to register the json to lucene index.
-     * @param indexWriter the index writer used to delete the index.
+     * @param jsonObject the json object to be updated.
+     * @param resource   the resource definition used to register the json to lucene index.
+     * @param legacy     whether the index contain legacy documents of the resource.
      * @throws IOException when other error happens during the deletion process.
      */
-    private void updateObject(final Object jsonObject, final Resource resource, final IndexWriter indexWriter)
+    private void updateObject(final Object jsonObject, final Resource resource, final boolean legacy)
             throws IOException {
-        // search for the same object, if they exists, delete them :)
-        deleteObject(jsonObject, resource, indexWriter);
-        // write the new object
-        writeObject(jsonObject, resource, indexWriter);
+        Term keyTerm = createKeyTerm(jsonObject, resource);
+        if (keyTerm != null && !legacy) {
+            IndexWriter writer = createIndexWriter(resource, keyTerm, jsonObject);
+            writer.updateDocument(keyTerm, createDocument(jsonObject, resource, keyTerm));
+        } else {
+            // search for the same object, if they exists, delete them :)
+            deleteObject(jsonObject, resource, legacy);
+            // write the new object
+            writeObject(jsonObject, resource);
+        }
+    }
+
+    /**
+     * Create an object inside the lucene index when the object doesn't exist yet. When the object has a primary key
+     * term and the resource has no legacy document, the existence is checked against the primary key terms resolved
+     * for the whole batch and the object is written using <code>updateDocument</code>, so concurrent writers of the
+     * same object end up with a single document. Otherwise the existence is checked by searching the unique
+     * searchable fields using the searcher of the batch.
+     *
+     * @param jsonObject the json object to be created.
+     * @param resource   the resource definition used to register the json to lucene index.
+     * @param legacy     whether the index contain legacy documents of the resource.
+     * @param searcher   the searcher of the batch.
+     * @param existing   the primary key terms existing in the index or already written in the current batch.
+     * @throws IOException when other error happens during the writing process.
+     */
+    private void createObject(final Object jsonObject, final Resource resource, final boolean legacy,
+                              final IndexSearcher searcher, final Set<Term> existing) throws IOException {
+        Term keyTerm = createKeyTerm(jsonObject, resource);
+        if (keyTerm != null && !legacy) {
+            if (existing.add(keyTerm)) {
+                IndexWriter writer = createIndexWriter(resource, keyTerm, jsonObject);
+                writer.updateDocument(keyTerm, createDocument(jsonObject, resource, keyTerm));
+            }
+        } else {
+            BooleanQuery query = createObjectQuery(jsonObject, resource.getSearchableFields());
+            query.add(createResourceQuery(resource), BooleanClause.Occur.MUST);
+            int totalHits = searcher.search(query, DEFAULT_MAX_DOCUMENTS).totalHits;
+            if (totalHits == 0) {
+                writeObject(jsonObject, resource);
+            }
+        }
     }
 
     @Override
@@ -485,7 +1699,7 @@ public class DefaultIndexer implements Indexer {
             logger.debug("Query getObject(String, Class): {}", booleanQuery.toString());
         }
 
-        List<Document> documents = findDocuments(booleanQuery);
+        List<Document> documents = findDocuments(getPartitions(clazz), booleanQuery);
 
         if (!CollectionUtil.isEmpty(documents) && documents.size() > 1) {
             throw new IOException("Unable to uniquely identify an object using key: '" + key + "' in the repository.");
@@ -494,8 +1708,7 @@ public class DefaultIndexer implements Indexer {
         for (Document document : documents) {
             String resourceName = document.get(DEFAULT_FIELD_RESOURCE);
             Resource resource = getResourceRegistry().get(resourceName);
-            String json = document.get(DEFAULT_FIELD_JSON);
-            object = clazz.cast(resource.deserialize(json));
+            object = clazz.cast(deserialize(document, resource));
         }
 
         return object;
@@ -513,8 +1726,13 @@ public class DefaultIndexer implements Indexer {
             logger.debug("Query objectExists(String, Class): {}", booleanQuery.toString());
         }
 
-        IndexSearcher searcher = createIndexSearcher();
-        TopDocs docs = searchTopDocs(booleanQuery, DEFAULT_MAX_DOCUMENTS);
+        TopDocs docs;
+        IndexSearcher searcher = acquireSearcher(getPartitions(clazz));
+        try {
+            docs = searchTopDocs(searcher, booleanQuery, DEFAULT_MAX_DOCUMENTS, null);
+        } finally {
+            releaseSearcher(searcher);
+        }
         if (docs.totalHits > 1) {
             throw new IOException("Unable to uniquely identify an object using key: '" + key + "' in the repository.");
         }
@@ -534,51 +1752,220 @@ public class DefaultIndexer implements Indexer {
             logger.debug("Query getObject(String,  Resource): {}", booleanQuery.toString());
         }
 
-        List<Document> documents = findDocuments(booleanQuery);
+        List<Document> documents = findDocuments(getPartitions(resource), booleanQuery);
 
         if (!CollectionUtil.isEmpty(documents) && documents.size() > 1) {
             throw new IOException("Unable to uniquely identify an object using key: '" + key + "' in the repository.");
         }
 
-        for (Document document : documents) {
-            String json = document.get(DEFAULT_FIELD_JSON);
-            object = resource.deserialize(json);
+        for (Document document : documents) {
+            object = deserialize(document, resource);
+        }
+
+        return object;
+    }
+
+    @Override
+    public Boolean objectExists(final String key, final Resource resource) throws IOException {
+        BooleanQuery booleanQuery = new BooleanQuery();
+        booleanQuery.add(createResourceQuery(resource), BooleanClause.Occur.MUST);
+        if (!StringUtil.isEmpty(key)) {
+            booleanQuery.add(createQuery(defaultField, key), BooleanClause.Occur.MUST);
+        }
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Query objectExists(String,  Resource): {}", booleanQuery.toString());
+        }
+
+        TopDocs docs;
+        IndexSearcher searcher = acquireSearcher(getPartitions(resource));
+        try {
+            docs = searchTopDocs(searcher, booleanQuery, DEFAULT_MAX_DOCUMENTS, null);
+        } finally {
+            releaseSearcher(searcher);
+        }
+        if (docs.totalHits > 1) {
+            throw new IOException("Unable to uniquely identify an object using key: '" + key + "' in the repository.");
+        }
+        return (docs.totalHits == 1);
+    }
+
+    /**
+     * Find the ids of the documents matching the <code>keys</code> on the default key field. The keys are sorted and
+     * looked up in a single pass over the terms dictionary of each segment, and only documents accepted by the
+     * discriminator filter are returned. Without discriminator filter, all matching documents are returned.
+     *
+     * @param searcher the index searcher.
+     * @param keys     the keys to distinguish the objects.
+     * @param filter   the class or resource filter of the objects, null to accept all documents.
+     * @return the document id of each key with a matching document.
+     * @throws IOException when a key match more than one document.
+     */
+    private Map<String, Integer> findDocumentIds(final IndexSearcher searcher, final Collection<String> keys,
+                                                 final DiscriminatorFilter filter) throws IOException {
+        Map<String, List<String>> sortedKeys = new TreeMap<String, List<String>>();
+        for (String key : keys) {
+            if (!StringUtil.isEmpty(key)) {
+                String lowerCaseKey = StringUtil.lowerCase(key);
+                List<String> originalKeys = sortedKeys.get(lowerCaseKey);
+                if (originalKeys == null) {
+                    originalKeys = new ArrayList<String>();
+                    sortedKeys.put(lowerCaseKey, originalKeys);
+                }
+                originalKeys.add(key);
+            }
+        }
+
+        Map<String, Integer> documentIds = new HashMap<String, Integer>();
+        if (searcher == null || sortedKeys.isEmpty()) {
+            return documentIds;
+        }
+
+        List<IndexReader> segments = new ArrayList<IndexReader>();
+        ReaderUtil.gatherSubReaders(segments, searcher.getIndexReader());
+        int docBase = 0;
+        for (IndexReader segment : segments) {
+            FixedBitSet accepted = new FixedBitSet(segment.maxDoc());
+            boolean matching = true;
+            if (filter == null) {
+                accepted.set(0, segment.maxDoc());
+            } else {
+                DocIdSet docIdSet = filter.getDocIdSet(segment);
+                DocIdSetIterator iterator = (docIdSet == null) ? null : docIdSet.iterator();
+                if (iterator == null) {
+                    matching = false;
+                } else {
+                    accepted.or(iterator);
+                }
+            }
+            if (matching) {
+                TermDocs termDocs = segment.termDocs();
+                try {
+                    for (Map.Entry<String, List<String>> entry : sortedKeys.entrySet()) {
+                        termDocs.seek(new Term(defaultField, entry.getKey()));
+                        while (termDocs.next()) {
+                            if (accepted.get(termDocs.doc())) {
+                                for (String key : entry.getValue()) {
+                                    if (documentIds.put(key, docBase + termDocs.doc()) != null) {
+                                        throw new IOException("Unable to uniquely identify an object using key: '"
+                                                + key + "' in the repository.");
+                                    }
+                                }
+                            }
+                        }
+                    }
+                } finally {
+                    termDocs.close();
+                }
+            }
+            docBase += segment.maxDoc();
+        }
+        return documentIds;
+    }
+
+    /**
+     * Check which of the <code>keys</code> have a matching document accepted by the discriminator filter.
+     *
+     * @param partitions the partitions holding the objects.
+     * @param keys       the keys to distinguish the objects.
+     * @param filter     the class or resource filter of the objects, null to accept all documents.
+     * @return true for each key with a matching document, false otherwise.
+     * @throws IOException when a key match more than one document.
+     */
+    private Map<String, Boolean> documentsExist(final List<String> partitions, final Collection<String> keys,
+                                                final DiscriminatorFilter filter) throws IOException {
+        Map<String, Integer> documentIds;
+        IndexSearcher searcher = acquireSearcher(partitions);
+        try {
+            documentIds = findDocumentIds(searcher, keys, filter);
+        } finally {
+            releaseSearcher(searcher);
+        }
+        Map<String, Boolean> exists = new LinkedHashMap<String, Boolean>();
+        for (String key : keys) {
+            exists.put(key, documentIds.containsKey(key));
+        }
+        return exists;
+    }
+
+    @Override
+    public <T> Map<String, T> getObjects(final Collection<String> keys, final Class<T> clazz) throws IOException {
+        Map<String, T> objects = new LinkedHashMap<String, T>();
+        IndexSearcher searcher = acquireSearcher(getPartitions(clazz));
+        try {
+            Map<String, Integer> documentIds = findDocumentIds(searcher, keys, createClassFilter(clazz));
+            for (String key : keys) {
+                Integer documentId = documentIds.get(key);
+                if (documentId != null) {
+                    Document document = loadDocument(searcher, documentId);
+                    String resourceName = document.get(DEFAULT_FIELD_RESOURCE);
+                    Resource resource = getResourceRegistry().get(resourceName);
+                    objects.put(key, clazz.cast(deserialize(document, resource)));
+                }
+            }
+        } finally {
+            releaseSearcher(searcher);
         }
-
-        return object;
+        return objects;
     }
 
     @Override
-    public Boolean objectExists(final String key, final Resource resource) throws IOException {
-        BooleanQuery booleanQuery = new BooleanQuery();
-        booleanQuery.add(createResourceQuery(resource), BooleanClause.Occur.MUST);
-        if (!StringUtil.isEmpty(key)) {
-            booleanQuery.add(createQuery(defaultField, key), BooleanClause.Occur.MUST);
-        }
+    public <T> Map<String, Boolean> objectsExist(final Collection<String> keys, final Class<T> clazz)
+            throws IOException {
+        return documentsExist(getPartitions(clazz), keys, createClassFilter(clazz));
+    }
 
-        if (logger.isDebugEnabled()) {
-            logger.debug("Query objectExists(String,  Resource): {}", booleanQuery.toString());
+    @Override
+    public Map<String, Searchable> getObjects(final Collection<String> keys, final Resource resource)
+            throws IOException {
+        Map<String, Searchable> objects = new LinkedHashMap<String, Searchable>();
+        IndexSearcher searcher = acquireSearcher(getPartitions(resource));
+        try {
+            Map<String, Integer> documentIds = findDocumentIds(searcher, keys, createResourceFilter(resource));
+            for (String key : keys) {
+                Integer documentId = documentIds.get(key);
+                if (documentId != null) {
+                    objects.put(key, deserialize(loadDocument(searcher, documentId), resource));
+                }
+            }
+        } finally {
+            releaseSearcher(searcher);
         }
+        return objects;
+    }
 
-        IndexSearcher searcher = createIndexSearcher();
-        TopDocs docs = searchTopDocs(booleanQuery, DEFAULT_MAX_DOCUMENTS);
-        if (docs.totalHits > 1) {
-            throw new IOException("Unable to uniquely identify an object using key: '" + key + "' in the repository.");
-        }
-        return (docs.totalHits == 1);
+    @Override
+    public Map<String, Boolean> objectsExist(final Collection<String> keys, final Resource resource)
+            throws IOException {
+        return documentsExist(getPartitions(resource), keys, createResourceFilter(resource));
     }
 
-    private void addFilters(final List<Filter> filters, final BooleanQuery booleanQuery) {
+    /**
+     * Normalize the list of filters into ordered terms. Filters without value are ignored and the values are lower
+     * cased, so the same set of filters always produce the same terms regardless of the order in the list.
+     *
+     * @param filters the list of filters.
+     * @return the ordered terms of the filters.
+     */
+    private List<Term> normalizeFilters(final List<Filter> filters) {
+        List<Term> terms = new ArrayList<Term>();
         for (Filter filter : filters) {
             String lowerCaseValue = StringUtil.lowerCase(filter.getFieldValue());
             if (!StringUtil.isEmpty(lowerCaseValue)) {
-                if (lowerCaseValue.contains("*") || lowerCaseValue.contains("?")) {
-                    WildcardQuery wildcardQuery = new WildcardQuery(new Term(filter.getFieldName(), lowerCaseValue));
-                    booleanQuery.add(wildcardQuery, BooleanClause.Occur.MUST);
-                } else {
-                    TermQuery termQuery = new TermQuery(new Term(filter.getFieldName(), lowerCaseValue));
-                    booleanQuery.add(termQuery, BooleanClause.Occur.MUST);
-                }
+                terms.add(new Term(filter.getFieldName(), lowerCaseValue));
+            }
+        }
+        Collections.sort(terms);
+        return terms;
+    }
+
+    private void addFilters(final List<Filter> filters, final BooleanQuery booleanQuery) {
+        for (Term term : normalizeFilters(filters)) {
+            String value = term.text();
+            if (value.contains("*") || value.contains("?")) {
+                booleanQuery.add(new WildcardQuery(term), BooleanClause.Occur.MUST);
+            } else {
+                booleanQuery.add(new TermQuery(term), BooleanClause.Occur.MUST);
             }
         }
     }
@@ -593,12 +1980,11 @@ public class DefaultIndexer implements Indexer {
         if (logger.isDebugEnabled()) {
             logger.debug("Query getObject(String, Class): {}", booleanQuery.toString());
         }
-        List<Document> documents = findDocuments(booleanQuery);
+        List<Document> documents = findDocuments(getPartitions(clazz), createFilterQuery(booleanQuery));
         for (Document document : documents) {
             String resourceName = document.get(DEFAULT_FIELD_RESOURCE);
             Resource resource = getResourceRegistry().get(resourceName);
-            String json = document.get(DEFAULT_FIELD_JSON);
-            objects.add(clazz.cast(resource.deserialize(json)));
+            objects.add(clazz.cast(deserialize(document, resource)));
         }
         return objects;
     }
@@ -615,12 +2001,11 @@ public class DefaultIndexer implements Indexer {
             logger.debug("Query getObject(String, Class): {}", booleanQuery.toString());
         }
 
-        List<Document> documents = findDocuments(booleanQuery, page, pageSize);
+        List<Document> documents = findDocuments(getPartitions(clazz), createFilterQuery(booleanQuery), page, pageSize);
         for (Document document : documents) {
             String resourceName = document.get(DEFAULT_FIELD_RESOURCE);
             Resource resource = getResourceRegistry().get(resourceName);
-            String json = document.get(DEFAULT_FIELD_JSON);
-            objects.add(clazz.cast(resource.deserialize(json)));
+            objects.add(clazz.cast(deserialize(document, resource)));
         }
         return objects;
     }
@@ -632,12 +2017,11 @@ public class DefaultIndexer implements Indexer {
         addFilters(filters, booleanQuery);
 
         if (logger.isDebugEnabled()) {
-            logger.debug("Query getObject(String, Class): {}", booleanQuery.toString());
+            logger.debug("Query countObjects(List, Class): {}", booleanQuery.toString());
         }
 
-        IndexSearcher searcher = createIndexSearcher();
-        TopDocs docs = searchTopDocs(booleanQuery, DEFAULT_MAX_DOCUMENTS);
-        return docs.totalHits;
+        return countDocuments(getPartitions(clazz), createFilterKey(createClassTerm(clazz), filters),
+                createFilterQuery(booleanQuery));
     }
 
     @Override
@@ -651,10 +2035,9 @@ public class DefaultIndexer implements Indexer {
             logger.debug("Query getObject(String, Class): {}", booleanQuery.toString());
         }
 
-        List<Document> documents = findDocuments(booleanQuery);
+        List<Document> documents = findDocuments(getPartitions(resource), createFilterQuery(booleanQuery));
         for (Document document : documents) {
-            String json = document.get(DEFAULT_FIELD_JSON);
-            objects.add(resource.deserialize(json));
+            objects.add(deserialize(document, resource));
         }
         return objects;
     }
@@ -671,10 +2054,10 @@ public class DefaultIndexer implements Indexer {
             logger.debug("Query getObject(String, Class): {}", booleanQuery.toString());
         }
 
-        List<Document> documents = findDocuments(booleanQuery, page, pageSize);
+        List<Document> documents = findDocuments(getPartitions(resource), createFilterQuery(booleanQuery),
+                page, pageSize);
         for (Document document : documents) {
-            String json = document.get(DEFAULT_FIELD_JSON);
-            objects.add(resource.deserialize(json));
+            objects.add(deserialize(document, resource));
         }
         return objects;
     }
@@ -691,10 +2074,9 @@ public class DefaultIndexer implements Indexer {
             logger.debug("Query getObject(String, Class): {}", booleanQuery.toString());
         }
 
-        List<Document> documents = findDocuments(booleanQuery, resource.getSortableFields());
+        List<Document> documents = findDocuments(getPartitions(clazz), booleanQuery, resource.getSortableFields());
         for (Document document : documents) {
-            String json = document.get(DEFAULT_FIELD_JSON);
-            objects.add(clazz.cast(resource.deserialize(json)));
+            objects.add(clazz.cast(deserialize(document, resource)));
         }
         return objects;
     }
@@ -713,15 +2095,9 @@ public class DefaultIndexer implements Indexer {
 
         List<SortField> sortFields = resource.getSortableFields();
 
-        List<Document> documents;
-        if(sortFields.size()>0){
-            documents = findDocuments(booleanQuery,sortFields, page, pageSize);
-        } else {
-            documents = findDocuments(booleanQuery, page, pageSize);
-        }
-        for (Document document : documents) {;
-            String json = document.get(DEFAULT_FIELD_JSON);
-            objects.add(clazz.cast(resource.deserialize(json)));
+        List<Document> documents = findDocuments(getPartitions(clazz), booleanQuery, sortFields, page, pageSize);
+        for (Document document : documents) {
+            objects.add(clazz.cast(deserialize(document, resource)));
         }
         return objects;
     }
@@ -737,10 +2113,9 @@ public class DefaultIndexer implements Indexer {
             logger.debug("Query getObject(String, Class): {}", booleanQuery.toString());
         }
 
-        List<Document> documents = findDocuments(booleanQuery, resource.getSortableFields());
+        List<Document> documents = findDocuments(getPartitions(resource), booleanQuery, resource.getSortableFields());
         for (Document document : documents) {
-            String json = document.get(DEFAULT_FIELD_JSON);
-            objects.add(resource.deserialize(json));
+            objects.add(deserialize(document, resource));
         }
         return objects;
     }
@@ -759,14 +2134,122 @@ public class DefaultIndexer implements Indexer {
 
         List<SortField> sortFields = resource.getSortableFields();
 
-        List<Document> documents = findDocuments(booleanQuery, sortFields, page, pageSize);
+        List<Document> documents = findDocuments(getPartitions(resource), booleanQuery, sortFields, page, pageSize);
         for (Document document : documents) {
-            String json = document.get(DEFAULT_FIELD_JSON);
-            objects.add(resource.deserialize(json));
+            objects.add(deserialize(document, resource));
         }
         return objects;
     }
 
+    @Override
+    public <T> Page<T> getObjectsAfter(final List<Filter> filters, final Class<T> clazz,
+                                       final Cursor cursor, final Integer pageSize) throws IOException {
+        List<T> objects = new ArrayList<T>();
+        BooleanQuery booleanQuery = new BooleanQuery();
+        booleanQuery.add(createClassQuery(clazz), BooleanClause.Occur.MUST);
+        addFilters(filters, booleanQuery);
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Query getObjectsAfter(List, Class): {}", booleanQuery.toString());
+        }
+
+        Page<Document> documents = searchDocumentsAfter(getPartitions(clazz), createFilterQuery(booleanQuery), null,
+                cursor, pageSize);
+        for (Document document : documents.getObjects()) {
+            String resourceName = document.get(DEFAULT_FIELD_RESOURCE);
+            Resource resource = getResourceRegistry().get(resourceName);
+            objects.add(clazz.cast(deserialize(document, resource)));
+        }
+        return new Page<T>(objects, documents.getCursor(), documents.getTotalHits());
+    }
+
+    @Override
+    public <T> Page<T> getSortedObjectsAfter(final List<Filter> filters, final Class<T> clazz, final Resource resource,
+                                             final Cursor cursor, final Integer pageSize) throws IOException {
+        List<T> objects = new ArrayList<T>();
+        BooleanQuery booleanQuery = new BooleanQuery();
+        booleanQuery.add(createClassQuery(clazz), BooleanClause.Occur.MUST);
+        addFilters(filters, booleanQuery);
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Query getSortedObjectsAfter(List, Class, Resource): {}", booleanQuery.toString());
+        }
+
+        Sort sort = createSort(resource.getSortableFields());
+        Page<Document> documents = searchDocumentsAfter(getPartitions(clazz), booleanQuery, sort, cursor, pageSize);
+        for (Document document : documents.getObjects()) {
+            objects.add(clazz.cast(deserialize(document, resource)));
+        }
+        return new Page<T>(objects, documents.getCursor(), documents.getTotalHits());
+    }
+
+    @Override
+    public Page<Searchable> getObjectsAfter(final List<Filter> filters, final Resource resource,
+                                            final Cursor cursor, final Integer pageSize) throws IOException {
+        List<Searchable> objects = new ArrayList<Searchable>();
+        BooleanQuery booleanQuery = new BooleanQuery();
+        booleanQuery.add(createResourceQuery(resource), BooleanClause.Occur.MUST);
+        addFilters(filters, booleanQuery);
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Query getObjectsAfter(List, Resource): {}", booleanQuery.toString());
+        }
+
+        Page<Document> documents = searchDocumentsAfter(getPartitions(resource), createFilterQuery(booleanQuery), null,
+                cursor, pageSize);
+        for (Document document : documents.getObjects()) {
+            objects.add(deserialize(document, resource));
+        }
+        return new Page<Searchable>(objects, documents.getCursor(), documents.getTotalHits());
+    }
+
+    @Override
+    public Page<Searchable> getSortedObjectsAfter(final List<Filter> filters, final Resource resource,
+                                                  final Cursor cursor, final Integer pageSize) throws IOException {
+        List<Searchable> objects = new ArrayList<Searchable>();
+        BooleanQuery booleanQuery = new BooleanQuery();
+        booleanQuery.add(createResourceQuery(resource), BooleanClause.Occur.MUST);
+        addFilters(filters, booleanQuery);
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Query getSortedObjectsAfter(List, Resource): {}", booleanQuery.toString());
+        }
+
+        Sort sort = createSort(resource.getSortableFields());
+        Page<Document> documents = searchDocumentsAfter(getPartitions(resource), booleanQuery, sort, cursor, pageSize);
+        for (Document document : documents.getObjects()) {
+            objects.add(deserialize(document, resource));
+        }
+        return new Page<Searchable>(objects, documents.getCursor(), documents.getTotalHits());
+    }
+
+    @Override
+    public <T> ResultIterator<T> iterateObjects(final List<Filter> filters, final Class<T> clazz) throws IOException {
+        BooleanQuery booleanQuery = new BooleanQuery();
+        booleanQuery.add(createClassQuery(clazz), BooleanClause.Occur.MUST);
+        addFilters(filters, booleanQuery);
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Query iterateObjects(List, Class): {}", booleanQuery.toString());
+        }
+
+        return iterateDocuments(createFilterQuery(booleanQuery), clazz);
+    }
+
+    @Override
+    public ResultIterator<Searchable> iterateObjects(final List<Filter> filters, final Resource resource)
+            throws IOException {
+        BooleanQuery booleanQuery = new BooleanQuery();
+        booleanQuery.add(createResourceQuery(resource), BooleanClause.Occur.MUST);
+        addFilters(filters, booleanQuery);
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Query iterateObjects(List, Resource): {}", booleanQuery.toString());
+        }
+
+        return iterateDocuments(createFilterQuery(booleanQuery), resource);
+    }
+
     @Override
     public Integer countObjects(final List<Filter> filters, final Resource resource) throws IOException {
         BooleanQuery booleanQuery = new BooleanQuery();
@@ -774,12 +2257,11 @@ public class DefaultIndexer implements Indexer {
         addFilters(filters, booleanQuery);
 
         if (logger.isDebugEnabled()) {
-            logger.debug("Query getObject(String, Class): {}", booleanQuery.toString());
+            logger.debug("Query countObjects(List, Resource): {}", booleanQuery.toString());
         }
 
-        IndexSearcher searcher = createIndexSearcher();
-        TopDocs docs = searchTopDocs(booleanQuery, DEFAULT_MAX_DOCUMENTS);
-        return docs.totalHits;
+        return countDocuments(getPartitions(resource), createFilterKey(createResourceTerm(resource), filters),
+                createFilterQuery(booleanQuery));
     }
 
     @Override
@@ -797,12 +2279,11 @@ public class DefaultIndexer implements Indexer {
             logger.debug("Query getObjects(String, Class): {}", booleanQuery.toString());
         }
 
-        List<Document> documents = findDocuments(booleanQuery);
+        List<Document> documents = findDocuments(getPartitions(clazz), booleanQuery);
         for (Document document : documents) {
             String resourceName = document.get(DEFAULT_FIELD_RESOURCE);
             Resource resource = getResourceRegistry().get(resourceName);
-            String json = document.get(DEFAULT_FIELD_JSON);
-            objects.add(clazz.cast(resource.deserialize(json)));
+            objects.add(clazz.cast(deserialize(document, resource)));
         }
         return objects;
     }
@@ -822,12 +2303,11 @@ public class DefaultIndexer implements Indexer {
             logger.debug("Query getObjects(String, Class): {}", booleanQuery.toString());
         }
 
-        List<Document> documents = findDocuments(booleanQuery, page, pageSize);
+        List<Document> documents = findDocuments(getPartitions(clazz), booleanQuery, page, pageSize);
         for (Document document : documents) {
             String resourceName = document.get(DEFAULT_FIELD_RESOURCE);
             Resource resource = getResourceRegistry().get(resourceName);
-            String json = document.get(DEFAULT_FIELD_JSON);
-            objects.add(clazz.cast(resource.deserialize(json)));
+            objects.add(clazz.cast(deserialize(document, resource)));
         }
         return objects;
     }
@@ -847,10 +2327,9 @@ public class DefaultIndexer implements Indexer {
             logger.debug("Query getObjects(String, Resource): {}", booleanQuery.toString());
         }
 
-        List<Document> documents = findDocuments(booleanQuery);
+        List<Document> documents = findDocuments(getPartitions(resource), booleanQuery);
         for (Document document : documents) {
-            String json = document.get(DEFAULT_FIELD_JSON);
-            objects.add(resource.deserialize(json));
+            objects.add(deserialize(document, resource));
         }
         return objects;
     }
@@ -870,29 +2349,155 @@ public class DefaultIndexer implements Indexer {
             logger.debug("Query getObjects(String, Resource): {}", booleanQuery.toString());
         }
 
-        List<Document> documents = findDocuments(booleanQuery, page, pageSize);
+        List<Document> documents = findDocuments(getPartitions(resource), booleanQuery, page, pageSize);
         for (Document document : documents) {
-            String json = document.get(DEFAULT_FIELD_JSON);
-            objects.add(resource.deserialize(json));
+            objects.add(deserialize(document, resource));
         }
         return objects;
     }
 
     @Override
-    public void deleteObjects(final List<Searchable> objects, final Resource resource) throws IOException {
-        synchronized (searcherLock) {
-            IndexWriter writer = createIndexWriter();
+    public <T> Page<T> getObjectsAfter(final String searchString, final Class<T> clazz, final Cursor cursor,
+                                       final Integer pageSize) throws ParseException, IOException {
+        List<T> objects = new ArrayList<T>();
+        BooleanQuery booleanQuery = new BooleanQuery();
+        booleanQuery.add(createClassQuery(clazz), BooleanClause.Occur.MUST);
+        if (!StringUtil.isEmpty(searchString)) {
+            Query query = parser.parse(searchString);
+            booleanQuery.add(query, BooleanClause.Occur.MUST);
+        }
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Query getObjectsAfter(String, Class): {}", booleanQuery.toString());
+        }
+
+        Page<Document> documents = searchDocumentsAfter(getPartitions(clazz), booleanQuery, null, cursor, pageSize);
+        for (Document document : documents.getObjects()) {
+            String resourceName = document.get(DEFAULT_FIELD_RESOURCE);
+            Resource resource = getResourceRegistry().get(resourceName);
+            objects.add(clazz.cast(deserialize(document, resource)));
+        }
+        return new Page<T>(objects, documents.getCursor(), documents.getTotalHits());
+    }
+
+    @Override
+    public Page<Searchable> getObjectsAfter(final String searchString, final Resource resource, final Cursor cursor,
+                                            final Integer pageSize) throws ParseException, IOException {
+        List<Searchable> objects = new ArrayList<Searchable>();
+        BooleanQuery booleanQuery = new BooleanQuery();
+        booleanQuery.add(createResourceQuery(resource), BooleanClause.Occur.MUST);
+        if (!StringUtil.isEmpty(searchString)) {
+            Query query = parser.parse(searchString);
+            booleanQuery.add(query, BooleanClause.Occur.MUST);
+        }
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Query getObjectsAfter(String, Resource): {}", booleanQuery.toString());
+        }
+
+        Page<Document> documents = searchDocumentsAfter(getPartitions(resource), booleanQuery, null, cursor, pageSize);
+        for (Document document : documents.getObjects()) {
+            objects.add(deserialize(document, resource));
+        }
+        return new Page<Searchable>(objects, documents.getCursor(), documents.getTotalHits());
+    }
+
+    @Override
+    public <T> ResultIterator<T> iterateObjects(final String searchString, final Class<T> clazz)
+            throws ParseException, IOException {
+        BooleanQuery booleanQuery = new BooleanQuery();
+        booleanQuery.add(createClassQuery(clazz), BooleanClause.Occur.MUST);
+        if (!StringUtil.isEmpty(searchString)) {
+            Query query = parser.parse(searchString);
+            booleanQuery.add(query, BooleanClause.Occur.MUST);
+        }
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Query iterateObjects(String, Class): {}", booleanQuery.toString());
+        }
+
+        return iterateDocuments(booleanQuery, clazz);
+    }
+
+    @Override
+    public ResultIterator<Searchable> iterateObjects(final String searchString, final Resource resource)
+            throws ParseException, IOException {
+        BooleanQuery booleanQuery = new BooleanQuery();
+        booleanQuery.add(createResourceQuery(resource), BooleanClause.Occur.MUST);
+        if (!StringUtil.isEmpty(searchString)) {
+            Query query = parser.parse(searchString);
+            booleanQuery.add(query, BooleanClause.Occur.MUST);
+        }
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Query iterateObjects(String, Resource): {}", booleanQuery.toString());
+        }
+
+        return iterateDocuments(booleanQuery, resource);
+    }
+
+    private void applyDeleteObjects(final List<Searchable> objects, final Resource resource) throws IOException {
+        synchronized (writerLock) {
+            boolean legacy = hasLegacyDocuments(resource);
             for (Searchable object : objects) {
-                String jsonString = resource.serialize(object);
-                Object jsonObject = JsonPath.read(jsonString, "$");
-                deleteObject(jsonObject, resource, writer);
+                Object jsonObject = serializeTree(object, resource);
+                deleteObject(jsonObject, resource, legacy);
+            }
+            legacyResources.remove(resource.getName());
+        }
+    }
+
+    @Override
+    public void deleteObjects(final List<Searchable> objects, final Resource resource) throws IOException {
+        applyDeleteObjects(objects, resource);
+        commit(objects.size());
+    }
+
+    @Override
+    public void deleteObjects(final Collection<String> keys, final Resource resource) throws IOException {
+        List<String> validKeys = new ArrayList<String>();
+        for (String key : keys) {
+            if (!StringUtil.isEmpty(key)) {
+                validKeys.add(key);
+            }
+        }
+        synchronized (writerLock) {
+            if (isKeyedByDefaultField(resource) && !hasLegacyDocuments(resource)) {
+                for (String key : validKeys) {
+                    String keyText = resource.getName() + KEY_SEPARATOR + StringUtil.lowerCase(key);
+                    Term keyTerm = new Term(DEFAULT_FIELD_KEY, keyText);
+                    createIndexWriter(resource, keyTerm, null).deleteDocuments(keyTerm);
+                }
+            } else {
+                Query[] queries = new Query[validKeys.size()];
+                for (int i = 0; i < queries.length; i++) {
+                    BooleanQuery booleanQuery = new BooleanQuery();
+                    booleanQuery.add(createResourceQuery(resource), BooleanClause.Occur.MUST);
+                    booleanQuery.add(createQuery(defaultField, validKeys.get(i)), BooleanClause.Occur.MUST);
+                    queries[i] = booleanQuery;
+                }
+                deleteDocuments(resource, queries);
             }
-            commit(writer);
+            legacyResources.remove(resource.getName());
         }
+        commit(validKeys.size());
+    }
+
+    @Override
+    public Future<Void> deleteObjectsAsync(final List<Searchable> objects, final Resource resource)
+            throws IOException {
+        final List<Searchable> copy = new ArrayList<Searchable>(objects);
+        return writeBehindQueue.submit(new WriteBehindQueue.Mutation() {
+            @Override
+            public int apply() throws IOException {
+                applyDeleteObjects(copy, resource);
+                return copy.size();
+            }
+        }, writeBehindCommitter);
     }
+
     @Override
     public  <T> void deleteObjects(final List<Filter> filters, final Class<T> clazz) throws IOException {
-        IndexWriter writer = createIndexWriter();
         BooleanQuery booleanQuery = new BooleanQuery();
         booleanQuery.add(createClassQuery(clazz), BooleanClause.Occur.MUST);
         addFilters(filters, booleanQuery);
@@ -900,41 +2505,210 @@ public class DefaultIndexer implements Indexer {
         if (logger.isDebugEnabled()) {
             logger.debug("Query getObject(String, Class): {}", booleanQuery.toString());
         }
-        synchronized (searcherLock) {
-            writer.deleteDocuments(booleanQuery);
-            commit(writer);
+        synchronized (writerLock) {
+            for (String partition : getPartitions(clazz)) {
+                writerProvider.get(partition).deleteDocuments(createFilterQuery(booleanQuery));
+            }
+            legacyResources.clear();
+        }
+        commit(1);
+    }
+
+    private void applyCreateObjects(final List<Searchable> objects, final Resource resource) throws IOException {
+        synchronized (writerLock) {
+            boolean legacy = hasLegacyDocuments(resource);
+            List<Object> jsonObjects = new ArrayList<Object>(objects.size());
+            List<Term> keyTerms = new ArrayList<Term>();
+            for (Searchable object : objects) {
+                Object jsonObject = serializeTree(object, resource);
+                jsonObjects.add(jsonObject);
+                Term keyTerm = createKeyTerm(jsonObject, resource);
+                if (keyTerm != null && !legacy) {
+                    keyTerms.add(keyTerm);
+                }
+            }
+            // a single searcher resolve the existence of the whole batch. The published searcher doesn't see the
+            // earlier operations of an open write batch, so these are resolved against the writers.
+            IndexSearcher searcher;
+            if (batchResources != null && batchResources.contains(resource.getName())) {
+                searcher = openWriterSearcher(getPartitions(resource));
+            } else {
+                searcher = acquireSearcher(getPartitions(resource));
+            }
+            try {
+                Set<Term> existing = findExistingKeys(searcher, keyTerms);
+                for (Object jsonObject : jsonObjects) {
+                    createObject(jsonObject, resource, legacy, searcher, existing);
+                }
+            } finally {
+                releaseSearcher(searcher);
+            }
         }
     }
 
     @Override
     public void createObjects(final List<Searchable> objects, final Resource resource) throws IOException {
-        synchronized (searcherLock) {
-            IndexSearcher searcher = createIndexSearcher();
-            IndexWriter writer = createIndexWriter();
+        applyCreateObjects(objects, resource);
+        commit(objects.size());
+    }
+
+    @Override
+    public Future<Void> createObjectsAsync(final List<Searchable> objects, final Resource resource)
+            throws IOException {
+        final List<Searchable> copy = new ArrayList<Searchable>(objects);
+        return writeBehindQueue.submit(new WriteBehindQueue.Mutation() {
+            @Override
+            public int apply() throws IOException {
+                applyCreateObjects(copy, resource);
+                return copy.size();
+            }
+        }, writeBehindCommitter);
+    }
+
+    private void applyUpdateObjects(final List<Searchable> objects, final Resource resource) throws IOException {
+        synchronized (writerLock) {
+            boolean legacy = hasLegacyDocuments(resource);
             for (Searchable object : objects) {
-                String jsonString = resource.serialize(object);
-                Object jsonObject = JsonPath.read(jsonString, "$");
-                BooleanQuery query = createObjectQuery(jsonObject, resource.getSearchableFields());
-                query.add(createResourceQuery(resource), BooleanClause.Occur.MUST);
-                TopDocs docs = searcher.search(query, DEFAULT_MAX_DOCUMENTS);
-                if (docs.totalHits == 0) {
-                    writeObject(jsonObject, resource, writer);
-                }
+                Object jsonObject = serializeTree(object, resource);
+                updateObject(jsonObject, resource, legacy);
             }
-            commit(writer);
         }
     }
 
     @Override
     public void updateObjects(final List<Searchable> objects, final Resource resource) throws IOException {
-        synchronized (searcherLock) {
-            IndexWriter writer = createIndexWriter();
-            for (Searchable object : objects) {
-                String jsonString = resource.serialize(object);
-                Object jsonObject = JsonPath.read(jsonString, "$");
-                updateObject(jsonObject, resource, writer);
+        applyUpdateObjects(objects, resource);
+        commit(objects.size());
+    }
+
+    @Override
+    public Future<Void> updateObjectsAsync(final List<Searchable> objects, final Resource resource)
+            throws IOException {
+        final List<Searchable> copy = new ArrayList<Searchable>(objects);
+        return writeBehindQueue.submit(new WriteBehindQueue.Mutation() {
+            @Override
+            public int apply() throws IOException {
+                applyUpdateObjects(copy, resource);
+                return copy.size();
+            }
+        }, writeBehindCommitter);
+    }
+
+    @Override
+    public void writeObjects(final WriteBatch batch) throws IOException {
+        if (batch.getOperations().isEmpty()) {
+            return;
+        }
+        indexMaintainer.touch(maintenance);
+        synchronized (writerLock) {
+            // commit the changes of other writers first, so a rollback only discard the changes of this batch.
+            commitWriters();
+            boolean committed = false;
+            batchResources = new HashSet<String>();
+            try {
+                for (WriteBatch.Operation operation : batch.getOperations()) {
+                    switch (operation.getType()) {
+                        case CREATE:
+                            applyCreateObjects(operation.getObjects(), operation.getResource());
+                            break;
+                        case UPDATE:
+                            applyUpdateObjects(operation.getObjects(), operation.getResource());
+                            break;
+                        case DELETE:
+                            applyDeleteObjects(operation.getObjects(), operation.getResource());
+                            break;
+                    }
+                    batchResources.add(operation.getResource().getName());
+                }
+                // the batch may span several partitions, prepare the commit of every partition before committing.
+                List<IndexWriter> writers = writerProvider.getWriters();
+                for (IndexWriter writer : writers) {
+                    writer.prepareCommit();
+                }
+                for (IndexWriter writer : writers) {
+                    writer.commit();
+                }
+                committed = true;
+            } finally {
+                batchResources = null;
+                if (!committed) {
+                    logger.error("Rolling back the changes of the write batch.");
+                    rollbackWriters();
+                }
+                publishChanges();
+            }
+        }
+    }
+
+    @Override
+    public void importObjects(final List<Searchable> objects, final Resource resource) throws IOException {
+        synchronized (writerLock) {
+            // commit the changes of other writers first, so a rollback only discard the imported objects.
+            commitWriters();
+            final boolean legacy = hasLegacyDocuments(resource);
+            // objects without primary key are deleted and written again, which must not interleave between workers.
+            final Object updateLock = new Object();
+            boolean imported = false;
+            try {
+                bulkImporter.process(objects, new BulkImporter.Worker<Searchable>() {
+                    @Override
+                    public void process(final Searchable object) throws IOException {
+                        Object jsonObject = serializeTree(object, resource);
+                        Term keyTerm = createKeyTerm(jsonObject, resource);
+                        if (keyTerm != null && !legacy) {
+                            IndexWriter writer = createIndexWriter(resource, keyTerm, jsonObject);
+                            writer.updateDocument(keyTerm, createDocument(jsonObject, resource, keyTerm));
+                        } else {
+                            synchronized (updateLock) {
+                                updateObject(jsonObject, resource, legacy);
+                            }
+                        }
+                    }
+                });
+                imported = true;
+            } finally {
+                if (!imported) {
+                    logger.error("Rolling back the imported objects.");
+                    rollbackWriters();
+                }
+            }
+            legacyResources.remove(resource.getName());
+        }
+        commit(objects.size());
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writeBehindQueue.flush();
+        commitPending.set(false);
+        groupCommitter.flush(commitTask);
+        if (searcherRefresher.isEnabled()) {
+            searcherRefresher.refresh(searcherRefresh, 0);
+        }
+    }
+
+    @Override
+    public void setMaxStaleness(final Long maxStaleness) {
+        if (maxStaleness == null) {
+            this.maxStaleness.remove();
+        } else {
+            this.maxStaleness.set(maxStaleness);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writeBehindQueue.close();
+        stopCommitScheduler();
+        flush();
+        indexMaintainer.stop();
+        searcherRefresher.stop();
+        synchronized (writerLock) {
+            try {
+                writerProvider.close();
+            } finally {
+                closeSearcherManagers();
             }
-            commit(writer);
         }
     }
 }
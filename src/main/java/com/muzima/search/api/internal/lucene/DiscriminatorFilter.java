@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2014. The Trustees of Indiana University.
+ *
+ * This version of the code is licensed under the MPL 2.0 Open Source license with additional
+ * healthcare disclaimer. If the user is an entity intending to commercialize any application
+ * that uses this code in a for-profit venture, please contact the copyright holder.
+ */
+
+package com.muzima.search.api.internal.lucene;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.CachingWrapperFilter;
+import org.apache.lucene.search.DocIdSet;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.QueryWrapperFilter;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.util.FixedBitSet;
+import org.apache.lucene.util.SortedVIntList;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Cached filter of the documents matching a single discriminator term, such as the class or the resource of the
+ * documents. The documents matching the term are computed once per index segment and reused by every query until the
+ * segment is merged away. Deleted documents are removed from the cached documents on the fly.
+ * <p/>
+ * The matching documents of a segment are stored in a sorted variable byte list when only a small portion of the
+ * segment match the term, otherwise they are stored in a bit set.
+ */
+public class DiscriminatorFilter extends CachingWrapperFilter {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int SPARSE_RATIO = 16;
+
+    private final Term term;
+
+    private final Map<Object, Long> memoryUsages = new WeakHashMap<Object, Long>();
+
+    public DiscriminatorFilter(final Term term) {
+        super(new QueryWrapperFilter(new TermQuery(term)), DeletesMode.DYNAMIC);
+        this.term = term;
+    }
+
+    /**
+     * Get the discriminator term of the filter.
+     *
+     * @return the discriminator term.
+     */
+    public Term getTerm() {
+        return term;
+    }
+
+    @Override
+    protected DocIdSet docIdSetToCache(final DocIdSet docIdSet, final IndexReader reader) throws IOException {
+        DocIdSetIterator iterator = (docIdSet == null) ? null : docIdSet.iterator();
+        if (iterator == null) {
+            return DocIdSet.EMPTY_DOCIDSET;
+        }
+
+        FixedBitSet bits = new FixedBitSet(reader.maxDoc());
+        bits.or(iterator);
+
+        DocIdSet cached = bits;
+        long memoryUsage = 8L * bits.getBits().length;
+        if (bits.cardinality() < reader.maxDoc() / SPARSE_RATIO) {
+            SortedVIntList list = new SortedVIntList(bits.iterator());
+            cached = list;
+            memoryUsage = list.getByteSize();
+        }
+
+        synchronized (memoryUsages) {
+            memoryUsages.put(reader.getCoreCacheKey(), memoryUsage);
+        }
+        return cached;
+    }
+
+    /**
+     * Get the estimated memory used by the cached documents of the segments which are still in use.
+     *
+     * @return the estimated memory used by the filter in bytes.
+     */
+    public long getMemoryUsage() {
+        long memoryUsage = 0;
+        synchronized (memoryUsages) {
+            for (Long segmentMemoryUsage : memoryUsages.values()) {
+                memoryUsage += segmentMemoryUsage;
+            }
+        }
+        return memoryUsage;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2014. The Trustees of Indiana University.
+ *
+ * This version of the code is licensed under the MPL 2.0 Open Source license with additional
+ * healthcare disclaimer. If the user is an entity intending to commercialize any application
+ * that uses this code in a for-profit venture, please contact the copyright holder.
+ */
+
+package com.muzima.search.api.internal.lucene;
+
+import com.muzima.search.api.exception.ServiceException;
+import com.muzima.search.api.result.ResultIterator;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.util.FixedBitSet;
+
+import java.io.IOException;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterator to walk over the matching document ids in doc id order. The stored document is only loaded and converted
+ * into the object when the caller ask for the next object.
+ * <p/>
+ * The iterator hold a reference to the reader of the searcher, which is released when the iterator is closed or as soon
+ * as there is no object left to return: right away for an empty result, otherwise when the last object has been
+ * returned. Dropping an exhausted or empty iterator without closing it therefore never leaks the reader.
+ */
+public abstract class DocumentIterator<T> implements ResultIterator<T> {
+
+    private IndexSearcher searcher;
+
+    private final FixedBitSet bits;
+
+    private final int size;
+
+    private int nextDoc;
+
+    protected DocumentIterator(final IndexSearcher searcher, final FixedBitSet bits, final int size)
+            throws IOException {
+        this.searcher = searcher;
+        this.bits = bits;
+        this.size = size;
+        this.nextDoc = nextSetBit(0);
+        if (nextDoc == -1) {
+            close();
+        }
+    }
+
+    private int nextSetBit(final int index) {
+        if (index >= bits.length()) {
+            return -1;
+        }
+        return bits.nextSetBit(index);
+    }
+
+    /**
+     * Convert the stored lucene document into the object returned by this iterator.
+     *
+     * @param document the stored lucene document.
+     * @return the object representation of the document.
+     * @throws IOException when the conversion process failed.
+     */
+    protected abstract T convert(final Document document) throws IOException;
+
+    /**
+     * Load the stored lucene document of a matching document id.
+     *
+     * @param searcher the searcher used to execute the query.
+     * @param doc      the matching document id.
+     * @return the stored lucene document.
+     * @throws IOException when loading the document failed.
+     */
+    protected Document load(final IndexSearcher searcher, final int doc) throws IOException {
+        return searcher.doc(doc);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return searcher != null && nextDoc != -1;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        int doc = nextDoc;
+        nextDoc = nextSetBit(doc + 1);
+        try {
+            T object = convert(load(searcher, doc));
+            if (nextDoc == -1) {
+                close();
+            }
+            return object;
+        } catch (IOException e) {
+            throw new ServiceException("Unable to load document: '" + doc + "' from the repository.", e);
+        }
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("Removing object from the result iterator is not supported.");
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (searcher != null) {
+            IndexSearcher releasedSearcher = searcher;
+            searcher = null;
+            releasedSearcher.getIndexReader().decRef();
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2014. The Trustees of Indiana University.
+ *
+ * This version of the code is licensed under the MPL 2.0 Open Source license with additional
+ * healthcare disclaimer. If the user is an entity intending to commercialize any application
+ * that uses this code in a for-profit venture, please contact the copyright holder.
+ */
+
+package com.muzima.search.api.internal.lucene;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Group the commits of concurrent writers into a single commit of the shared index writer.
+ * <p/>
+ * A writer register its changes after applying them to the index writer and then wait until a commit covering the
+ * changes is completed. The first waiting writer which find the commit is due become the leader and perform the
+ * commit on behalf of all registered writers. A commit is due when the number of pending changes reach the batch
+ * size, or when the oldest pending change has waited for the maximum delay. With the default delay of zero, the
+ * commit is performed right away, but writers registering while a commit is in progress are still grouped into the
+ * next commit.
+ */
+@Singleton
+public class GroupCommitter {
+
+    /**
+     * The commit operation performed by the leader on behalf of all registered writers.
+     */
+    public interface Task {
+
+        void commit() throws IOException;
+    }
+
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private long maximumDelay;
+
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    private long registered;
+
+    private long committed;
+
+    private int pendingChanges;
+
+    private long pendingSince;
+
+    private boolean committing;
+
+    private boolean flushRequested;
+
+    /**
+     * The failed commits whose writers didn't all wake up yet, keyed by the first ticket covered by the commit.
+     */
+    private final TreeMap<Long, Failure> failures = new TreeMap<Long, Failure>();
+
+    @Inject(optional = true)
+    public void setMaximumDelay(final @Named("configuration.lucene.commit.delay") Long maximumDelay) {
+        this.maximumDelay = maximumDelay;
+    }
+
+    @Inject(optional = true)
+    public void setBatchSize(final @Named("configuration.lucene.commit.batch") Integer batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Register changes applied to the index writer.
+     *
+     * @param changes the number of changed documents.
+     * @return the ticket of the changes, to be passed to {@link #await(long, Task)}.
+     */
+    public synchronized long register(final int changes) {
+        if (pendingChanges == 0) {
+            pendingSince = System.currentTimeMillis();
+        }
+        pendingChanges += changes;
+        if (pendingChanges >= batchSize) {
+            notifyAll();
+        }
+        return ++registered;
+    }
+
+    /**
+     * Wait until the changes of the ticket are committed, performing the commit when the commit is due.
+     *
+     * @param ticket the ticket of the changes.
+     * @param task   the commit operation.
+     * @throws IOException when the commit covering the changes failed.
+     * @should report the failure to the writers of every failed commit.
+     */
+    public void await(final long ticket, final Task task) throws IOException {
+        long first;
+        long target;
+        synchronized (this) {
+            while (true) {
+                if (committed >= ticket) {
+                    checkFailure(ticket);
+                    return;
+                }
+                if (!committing) {
+                    long remaining = pendingSince + maximumDelay - System.currentTimeMillis();
+                    if (flushRequested || pendingChanges >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    waitFor(remaining);
+                } else {
+                    waitFor(0);
+                }
+            }
+            committing = true;
+            flushRequested = false;
+            pendingChanges = 0;
+            first = committed + 1;
+            target = registered;
+        }
+
+        IOException exception = null;
+        try {
+            task.commit();
+        } catch (IOException e) {
+            exception = e;
+        } finally {
+            synchronized (this) {
+                if (exception != null && target > first) {
+                    // the leader get the exception right away, the other writers of the commit get it when they wake.
+                    failures.put(first, new Failure(target, target - first, exception));
+                }
+                committed = target;
+                committing = false;
+                notifyAll();
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    /**
+     * Commit all registered changes right away without waiting for the maximum delay.
+     *
+     * @param task the commit operation.
+     * @throws IOException when the commit failed.
+     */
+    public void flush(final Task task) throws IOException {
+        long ticket;
+        synchronized (this) {
+            flushRequested = true;
+            ticket = ++registered;
+            notifyAll();
+        }
+        await(ticket, task);
+    }
+
+    private void checkFailure(final long ticket) throws IOException {
+        Map.Entry<Long, Failure> entry = failures.floorEntry(ticket);
+        if (entry == null || entry.getValue().last < ticket) {
+            return;
+        }
+        Failure failure = entry.getValue();
+        if (--failure.waiters == 0) {
+            failures.remove(entry.getKey());
+        }
+        throw new IOException("Unable to commit changes to the repository.", failure.exception);
+    }
+
+    private void waitFor(final long timeout) throws IOException {
+        try {
+            wait(timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the commit of the changes.");
+        }
+    }
+
+    /**
+     * Failure of a commit, kept until every writer whose changes were covered by the commit is told about it.
+     */
+    private static class Failure {
+
+        private final long last;
+
+        private long waiters;
+
+        private final IOException exception;
+
+        private Failure(final long last, final long waiters, final IOException exception) {
+            this.last = last;
+            this.waiters = waiters;
+            this.exception = exception;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2014. The Trustees of Indiana University.
+ *
+ * This version of the code is licensed under the MPL 2.0 Open Source license with additional
+ * healthcare disclaimer. If the user is an entity intending to commercialize any application
+ * that uses this code in a for-profit venture, please contact the copyright holder.
+ */
+
+package com.muzima.search.api.internal.lucene;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.util.ReaderUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background maintenance of the index. The maintainer periodically check the number of segments and the percentage
+ * of deleted documents of the index. When the index has been idle for a while and either value exceed the configured
+ * threshold, the deleted documents are reclaimed or the segments are merged, and the result is committed.
+ * <p/>
+ * The maintenance is disabled by default and only runs once the check interval is configured. Without a configured
+ * maximum number of segments, the merges are left to the merge policy of the index writer. Configuring it force the
+ * merge down to that number of segments, regardless of the tiers of the merge policy.
+ * <p/>
+ * Configuration:
+ * <pre>
+ * configuration.lucene.maintenance.interval : the interval between checks in milliseconds, not set or 0 disable the
+ *                                             maintenance
+ * configuration.lucene.maintenance.idle : the time without writes before the index is considered idle in milliseconds
+ * configuration.lucene.maintenance.segments : the maximum number of segments, not set leave the merges to the merge
+ *                                             policy
+ * configuration.lucene.maintenance.deletes : the maximum percentage of deleted documents
+ * </pre>
+ * The IO of the merges can be throttled using the merge thread settings of the index writer. When the index is
+ * partitioned, each partition is checked and merged on its own.
+ */
+@Singleton
+public class IndexMaintainer {
+
+    /**
+     * Access of the maintainer to the index.
+     */
+    public interface Maintenance {
+
+        /**
+         * Get the names of the open partitions of the index.
+         *
+         * @return the names of the open partitions.
+         */
+        List<String> getPartitions();
+
+        /**
+         * Get the reader of the last committed state of a partition. The reference of the reader is incremented, the
+         * maintainer decrement it once done with the reader.
+         *
+         * @param partition the name of the partition.
+         * @return the reader or null when the partition is not open.
+         * @throws IOException when opening the reader failed.
+         */
+        IndexReader getReader(final String partition) throws IOException;
+
+        /**
+         * Get the open writer of a partition. Partitions without open writer have not been written to and are not
+         * maintained.
+         *
+         * @param partition the name of the partition.
+         * @return the writer or null when the partition has no open writer.
+         */
+        IndexWriter getWriter(final String partition);
+
+        /**
+         * Commit the result of the maintenance and make it visible to the searcher.
+         *
+         * @throws IOException when committing failed.
+         */
+        void commit() throws IOException;
+    }
+
+    private static final long DEFAULT_IDLE = 30000;
+
+    /**
+     * Number of segments above which the merge policy is asked for merges, when no maximum is configured.
+     */
+    private static final int DEFAULT_SEGMENTS = 10;
+
+    private static final double DEFAULT_DELETES = 10;
+
+    private final Logger logger = LoggerFactory.getLogger(IndexMaintainer.class.getSimpleName());
+
+    private long interval;
+
+    private long idle = DEFAULT_IDLE;
+
+    private Integer segments;
+
+    private double deletes = DEFAULT_DELETES;
+
+    private volatile long lastWrite;
+
+    private volatile boolean dirty;
+
+    private Maintenance maintenance;
+
+    private ScheduledExecutorService scheduler;
+
+    @Inject(optional = true)
+    public void setInterval(final @Named("configuration.lucene.maintenance.interval") Long interval) {
+        this.interval = interval;
+    }
+
+    @Inject(optional = true)
+    public void setIdle(final @Named("configuration.lucene.maintenance.idle") Long idle) {
+        this.idle = idle;
+    }
+
+    @Inject(optional = true)
+    public void setSegments(final @Named("configuration.lucene.maintenance.segments") Integer segments) {
+        this.segments = segments;
+    }
+
+    @Inject(optional = true)
+    public void setDeletes(final @Named("configuration.lucene.maintenance.deletes") Double deletes) {
+        this.deletes = deletes;
+    }
+
+    /**
+     * Record a write to the index and start the periodic check when it's not running yet.
+     *
+     * @param maintenance the access to the index.
+     */
+    public void touch(final Maintenance maintenance) {
+        lastWrite = System.currentTimeMillis();
+        dirty = true;
+        start(maintenance);
+    }
+
+    private synchronized void start(final Maintenance maintenance) {
+        this.maintenance = maintenance;
+        if (interval > 0 && scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                    Thread thread = new Thread(runnable, "lucene-maintenance");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            scheduler.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    if (dirty && System.currentTimeMillis() - lastWrite >= idle) {
+                        try {
+                            maintain();
+                        } catch (Exception e) {
+                            logger.error("Unable to perform the index maintenance.", e);
+                        }
+                    }
+                }
+            }, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stop the periodic check, waiting for a running maintenance to complete. The check is started again by the next
+     * write to the index.
+     */
+    public void stop() {
+        ScheduledExecutorService currentScheduler;
+        synchronized (this) {
+            currentScheduler = scheduler;
+            scheduler = null;
+            maintenance = null;
+        }
+        if (currentScheduler != null) {
+            currentScheduler.shutdown();
+            try {
+                currentScheduler.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Check the number of segments and the percentage of deleted documents of every partition of the index, and
+     * reclaim the deleted documents or merge the segments when either exceed the threshold.
+     *
+     * @return true when the index was merged.
+     * @throws IOException when merging or committing the index failed.
+     * @should reclaim the deleted documents of the updated objects.
+     */
+    public boolean maintain() throws IOException {
+        Maintenance currentMaintenance;
+        synchronized (this) {
+            currentMaintenance = maintenance;
+        }
+        if (currentMaintenance == null) {
+            return false;
+        }
+        dirty = false;
+        boolean merged = false;
+        for (String partition : currentMaintenance.getPartitions()) {
+            if (maintain(currentMaintenance, partition)) {
+                merged = true;
+            }
+        }
+        if (merged) {
+            currentMaintenance.commit();
+        }
+        return merged;
+    }
+
+    private boolean maintain(final Maintenance currentMaintenance, final String partition) throws IOException {
+        IndexReader reader = currentMaintenance.getReader(partition);
+        if (reader == null) {
+            return false;
+        }
+
+        int segmentCount;
+        double deletedPercentage = 0;
+        try {
+            List<IndexReader> subReaders = new ArrayList<IndexReader>();
+            ReaderUtil.gatherSubReaders(subReaders, reader);
+            segmentCount = subReaders.size();
+            if (reader.maxDoc() > 0) {
+                deletedPercentage = 100.0 * reader.numDeletedDocs() / reader.maxDoc();
+            }
+        } finally {
+            reader.decRef();
+        }
+
+        IndexWriter writer = currentMaintenance.getWriter(partition);
+        if (writer == null) {
+            return false;
+        }
+        if (deletedPercentage > deletes) {
+            logger.info("Reclaiming deleted documents, {}% of the documents are deleted.",
+                    String.format("%.1f", deletedPercentage));
+            writer.forceMergeDeletes();
+        } else if (segments != null && segmentCount > segments) {
+            logger.info("Merging {} segments into {} segments.", segmentCount, segments);
+            writer.forceMerge(segments);
+        } else if (segments == null && segmentCount > DEFAULT_SEGMENTS) {
+            logger.info("Requesting merges of {} segments from the merge policy.", segmentCount);
+            writer.maybeMerge();
+        } else {
+            return false;
+        }
+        return true;
+    }
+}
@@ -10,12 +10,19 @@ package com.muzima.search.api.internal.lucene;
 
 import com.muzima.search.api.filter.Filter;
 import com.muzima.search.api.model.object.Searchable;
+import com.muzima.search.api.model.object.WriteBatch;
 import com.muzima.search.api.resource.Resource;
+import com.muzima.search.api.result.Cursor;
+import com.muzima.search.api.result.Page;
+import com.muzima.search.api.result.ResultIterator;
 import org.apache.lucene.queryParser.ParseException;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
 
 public interface Indexer {
 
@@ -29,6 +36,14 @@ public interface Indexer {
 
     Boolean objectExists(final String key, final Resource resource) throws IOException;
 
+    <T> Map<String, T> getObjects(final Collection<String> keys, final Class<T> clazz) throws IOException;
+
+    <T> Map<String, Boolean> objectsExist(final Collection<String> keys, final Class<T> clazz) throws IOException;
+
+    Map<String, Searchable> getObjects(final Collection<String> keys, final Resource resource) throws IOException;
+
+    Map<String, Boolean> objectsExist(final Collection<String> keys, final Resource resource) throws IOException;
+
     <T> List<T> getObjects(final List<Filter> filters, final Class<T> clazz) throws IOException;
     <T> List<T> getSortedObjects(final List<Filter> filters, final Class<T> clazz,
                                  final Resource resource) throws IOException;
@@ -39,6 +54,12 @@ public interface Indexer {
     <T> List<T> getSortedObjects(final List<Filter> filters, final Class<T> clazz, final Resource resource,
                            final Integer page, final Integer pageSize) throws IOException;
 
+    <T> Page<T> getObjectsAfter(final List<Filter> filters, final Class<T> clazz,
+                                final Cursor cursor, final Integer pageSize) throws IOException;
+
+    <T> Page<T> getSortedObjectsAfter(final List<Filter> filters, final Class<T> clazz, final Resource resource,
+                                      final Cursor cursor, final Integer pageSize) throws IOException;
+
     <T> Integer countObjects(final List<Filter> filters, final Class<T> clazz) throws IOException;
 
     List<Searchable> getObjects(final List<Filter> filters, final Resource resource) throws IOException;
@@ -49,6 +70,15 @@ public interface Indexer {
     List<Searchable> getSortedObjects(final List<Filter> filters, final Resource resource,
                                 final Integer page, final Integer pageSize) throws IOException;
 
+    Page<Searchable> getObjectsAfter(final List<Filter> filters, final Resource resource,
+                                     final Cursor cursor, final Integer pageSize) throws IOException;
+    Page<Searchable> getSortedObjectsAfter(final List<Filter> filters, final Resource resource,
+                                           final Cursor cursor, final Integer pageSize) throws IOException;
+
+    <T> ResultIterator<T> iterateObjects(final List<Filter> filters, final Class<T> clazz) throws IOException;
+
+    ResultIterator<Searchable> iterateObjects(final List<Filter> filters, final Resource resource) throws IOException;
+
     Integer countObjects(final List<Filter> filters, final Resource resource) throws IOException;
 
     <T> List<T> getObjects(final String searchString, final Class<T> clazz) throws ParseException, IOException;
@@ -61,10 +91,41 @@ public interface Indexer {
     List<Searchable> getObjects(final String searchString, final Resource resource,
                                 final Integer page, final Integer pageSize) throws ParseException, IOException;
 
+    <T> Page<T> getObjectsAfter(final String searchString, final Class<T> clazz,
+                                final Cursor cursor, final Integer pageSize) throws ParseException, IOException;
+
+    Page<Searchable> getObjectsAfter(final String searchString, final Resource resource,
+                                     final Cursor cursor, final Integer pageSize) throws ParseException, IOException;
+
+    <T> ResultIterator<T> iterateObjects(final String searchString, final Class<T> clazz)
+            throws ParseException, IOException;
+
+    ResultIterator<Searchable> iterateObjects(final String searchString, final Resource resource)
+            throws ParseException, IOException;
+
     void deleteObjects(final List<Searchable> objects, final Resource resource) throws IOException;
 
+    void deleteObjects(final Collection<String> keys, final Resource resource) throws IOException;
+
     void createObjects(final List<Searchable> objects, Resource resource) throws IOException;
 
     void updateObjects(final List<Searchable> objects, Resource resource) throws IOException;
+
+    void importObjects(final List<Searchable> objects, final Resource resource) throws IOException;
+
+    void writeObjects(final WriteBatch batch) throws IOException;
+
+    Future<Void> deleteObjectsAsync(final List<Searchable> objects, final Resource resource) throws IOException;
+
+    Future<Void> createObjectsAsync(final List<Searchable> objects, final Resource resource) throws IOException;
+
+    Future<Void> updateObjectsAsync(final List<Searchable> objects, final Resource resource) throws IOException;
+
     <T> void deleteObjects(final List<Filter> filters, final Class<T> clazz) throws IOException;
+
+    void flush() throws IOException;
+
+    void setMaxStaleness(final Long maxStaleness);
+
+    void close() throws IOException;
 }
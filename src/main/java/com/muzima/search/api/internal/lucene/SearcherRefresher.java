@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2014. The Trustees of Indiana University.
+ *
+ * This version of the code is licensed under the MPL 2.0 Open Source license with additional
+ * healthcare disclaimer. If the user is an entity intending to commercialize any application
+ * that uses this code in a for-profit venture, please contact the copyright holder.
+ */
+
+package com.muzima.search.api.internal.lucene;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+
+/**
+ * Background refresh of the index searcher. When enabled, a commit only signal the refresher and the searcher is
+ * reopened, and warmed, on the refresher thread instead of the writing thread. Signals arriving while a refresh is
+ * running are grouped into the next refresh, and consecutive refreshes are at least the configured interval apart.
+ * <p/>
+ * The staleness of the searcher is the time since the oldest commit which is not visible to the searcher yet. Reads
+ * which can't tolerate the current staleness refresh the searcher themselves before searching.
+ * <p/>
+ * Configuration:
+ * <pre>
+ * configuration.lucene.refresh.interval : the minimum time between refreshes in milliseconds, not set disable the
+ *                                         refresher and the searcher is refreshed by the committing thread
+ * configuration.lucene.refresh.staleness : the default maximum staleness of the reads in milliseconds, default to the
+ *                                          refresh interval
+ * </pre>
+ */
+@Singleton
+public class SearcherRefresher {
+
+    /**
+     * The refresh of the searcher.
+     */
+    public interface Refresh {
+
+        /**
+         * Reopen the searcher to see the committed changes.
+         *
+         * @throws IOException when reopening the searcher failed.
+         */
+        void refresh() throws IOException;
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(SearcherRefresher.class.getSimpleName());
+
+    private Long interval;
+
+    private Long staleness;
+
+    /**
+     * The time of the oldest commit which is not visible to the searcher yet, or 0 when the searcher is current.
+     */
+    private long pendingSince;
+
+    /**
+     * The number of signalled commits.
+     */
+    private long signalled;
+
+    /**
+     * The number of signalled commits visible to the searcher.
+     */
+    private long refreshed;
+
+    private Refresh refresh;
+
+    private Thread thread;
+
+    @Inject(optional = true)
+    public void setInterval(final @Named("configuration.lucene.refresh.interval") Long interval) {
+        this.interval = interval;
+    }
+
+    @Inject(optional = true)
+    public void setStaleness(final @Named("configuration.lucene.refresh.staleness") Long staleness) {
+        this.staleness = staleness;
+    }
+
+    /**
+     * Check whether the searcher is refreshed in the background.
+     *
+     * @return true when the searcher is refreshed by the refresher thread.
+     */
+    public boolean isEnabled() {
+        return interval != null && interval >= 0;
+    }
+
+    /**
+     * Get the default maximum staleness of the reads, which is the refresh interval unless configured otherwise.
+     *
+     * @return the default maximum staleness in milliseconds.
+     */
+    public long getMaxStaleness() {
+        if (staleness != null) {
+            return staleness;
+        }
+        return (interval == null) ? 0 : Math.max(0, interval);
+    }
+
+    /**
+     * Get the staleness of the searcher.
+     *
+     * @return the time since the oldest commit which is not visible to the searcher in milliseconds, 0 when the
+     *         searcher is current.
+     */
+    public synchronized long getStaleness() {
+        if (pendingSince == 0) {
+            return 0;
+        }
+        return Math.max(1, System.currentTimeMillis() - pendingSince);
+    }
+
+    /**
+     * Signal a commit to the refresher, which refresh the searcher in the background.
+     *
+     * @param refresh the refresh of the searcher.
+     */
+    public synchronized void signal(final Refresh refresh) {
+        signalled++;
+        if (pendingSince == 0) {
+            pendingSince = System.currentTimeMillis();
+        }
+        this.refresh = refresh;
+        if (thread == null) {
+            thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    runRefresher(Thread.currentThread());
+                }
+            }, "lucene-refresher");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        notifyAll();
+    }
+
+    /**
+     * Stop the refresher thread, waiting for a running refresh to complete. The thread is started again by the next
+     * signal.
+     */
+    public void stop() {
+        Thread currentThread;
+        synchronized (this) {
+            currentThread = thread;
+            thread = null;
+            notifyAll();
+        }
+        if (currentThread != null) {
+            try {
+                currentThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Refresh the searcher on the calling thread when its staleness exceed the maximum staleness.
+     *
+     * @param refresh      the refresh of the searcher.
+     * @param maxStaleness the maximum staleness in milliseconds.
+     * @throws IOException when reopening the searcher failed.
+     */
+    public void refresh(final Refresh refresh, final long maxStaleness) throws IOException {
+        if (getStaleness() > maxStaleness) {
+            performRefresh(refresh);
+        }
+    }
+
+    private void performRefresh(final Refresh refresh) throws IOException {
+        long target;
+        long started = System.currentTimeMillis();
+        synchronized (this) {
+            target = signalled;
+        }
+        refresh.refresh();
+        synchronized (this) {
+            if (target > refreshed) {
+                refreshed = target;
+                // commits signalled during the refresh may not be visible, they are at most as old as the refresh.
+                pendingSince = (refreshed == signalled) ? 0 : started;
+            }
+        }
+    }
+
+    /**
+     * Loop of the refresher thread, running until the thread is no longer the refresher thread.
+     *
+     * @param self the refresher thread.
+     */
+    private void runRefresher(final Thread self) {
+        try {
+            while (true) {
+                Refresh currentRefresh;
+                synchronized (this) {
+                    while (pendingSince == 0 && thread == self) {
+                        wait();
+                    }
+                    if (thread != self) {
+                        return;
+                    }
+                    currentRefresh = refresh;
+                }
+                try {
+                    performRefresh(currentRefresh);
+                } catch (Exception e) {
+                    logger.error("Unable to refresh the index searcher.", e);
+                }
+                synchronized (this) {
+                    long end = System.currentTimeMillis() + interval;
+                    long remaining = interval;
+                    while (remaining > 0 && thread == self) {
+                        wait(remaining);
+                        remaining = end - System.currentTimeMillis();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2014. The Trustees of Indiana University.
+ *
+ * This version of the code is licensed under the MPL 2.0 Open Source license with additional
+ * healthcare disclaimer. If the user is an entity intending to commercialize any application
+ * that uses this code in a for-profit venture, please contact the copyright holder.
+ */
+
+package com.muzima.search.api.internal.lucene;
+
+import com.google.inject.Inject;
+import com.google.inject.name.Named;
+import com.muzima.search.api.resource.Resource;
+import com.muzima.search.api.util.StringUtil;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.MultiReader;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TotalHitCountCollector;
+import org.apache.lucene.util.Version;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Indexer splitting the documents into a fixed number of shards, each shard being a partition with its own directory,
+ * writer and searcher. The shard of a document is selected by the hash of its primary key term, so the shards grow
+ * evenly and a keyed object always stay in the same shard. Sharding is applied on top of the partitioning by resource
+ * when both are enabled.
+ * <p/>
+ * Objects of a resource without unique field have no primary key term, and are spread by the hash of their json. The
+ * shard of such a document is only used to write it: these objects are found by searching their fields, and deleted
+ * by a query, in all shards of the resource, so the same object written with a different json is still replaced.
+ * <p/>
+ * Queries search all shards concurrently using the search thread pool. The top documents of sorted and paged queries
+ * are merged across the shards by the searcher, and the document counts of the shards are summed.
+ * <p/>
+ * The shard of a document depends on the number of shards, so the index must be rebuilt when the number of shards
+ * is changed. The indexer is selected by binding {@link Indexer} to this class instead of the default indexer.
+ * <p/>
+ * Configuration:
+ * <pre>
+ * configuration.lucene.shards : the number of shards, default to 4
+ * </pre>
+ */
+public class ShardedIndexer extends DefaultIndexer {
+
+    private static final int DEFAULT_SHARDS = 4;
+
+    private static final String SHARD_PREFIX = "shard-";
+
+    private final ExecutorService executor;
+
+    @Inject(optional = true)
+    @Named("configuration.lucene.shards")
+    Integer shards;
+
+    @Inject
+    protected ShardedIndexer(final @Named("configuration.lucene.field.key") String defaultField,
+                             final Version version, final Analyzer analyzer,
+                             final @Named("configuration.lucene.search.executor") ExecutorService executor) {
+        super(defaultField, version, analyzer);
+        this.executor = executor;
+    }
+
+    private int getShards() {
+        return (shards == null || shards < 1) ? DEFAULT_SHARDS : shards;
+    }
+
+    /**
+     * Get the name of a shard of a partition.
+     *
+     * @param partition the name of the partition.
+     * @param shard     the index of the shard.
+     * @return the name of the shard.
+     */
+    private String getShard(final String partition, final int shard) {
+        if (StringUtil.isEmpty(partition)) {
+            return SHARD_PREFIX + shard;
+        }
+        return partition + "-" + SHARD_PREFIX + shard;
+    }
+
+    private List<String> getShards(final List<String> partitions) {
+        List<String> shardNames = new ArrayList<String>();
+        for (String partition : partitions) {
+            for (int i = 0; i < getShards(); i++) {
+                shardNames.add(getShard(partition, i));
+            }
+        }
+        return shardNames;
+    }
+
+    @Override
+    protected String getPartition(final Resource resource, final Term keyTerm, final Object jsonObject) {
+        // the hash of a string is specified by the language, so the shard of a document is stable across restarts.
+        // objects without primary key term are never looked up in a single shard, their json only spread the writes.
+        String value = (keyTerm != null) ? keyTerm.text() : jsonObject.toString();
+        int shard = (value.hashCode() & Integer.MAX_VALUE) % getShards();
+        return getShard(getPartition(resource), shard);
+    }
+
+    @Override
+    protected List<String> getPartitions(final Resource resource) {
+        return getShards(super.getPartitions(resource));
+    }
+
+    @Override
+    protected List<String> getPartitions(final Class<?> clazz) {
+        return getShards(super.getPartitions(clazz));
+    }
+
+    @Override
+    protected IndexSearcher createSearcher(final IndexReader reader) {
+        return new IndexSearcher(reader, executor);
+    }
+
+    /**
+     * Count the documents matching the query in every shard concurrently and sum the counts.
+     *
+     * @param searcher the searcher used to execute the query.
+     * @param query    the lucene query.
+     * @return total number of documents matching the query.
+     * @throws IOException when the search encounter error.
+     */
+    @Override
+    protected int countDocuments(final IndexSearcher searcher, final Query query) throws IOException {
+        IndexReader reader = searcher.getIndexReader();
+        if (!(reader instanceof MultiReader)) {
+            return super.countDocuments(searcher, query);
+        }
+
+        List<Future<Integer>> counts = new ArrayList<Future<Integer>>();
+        for (final IndexReader shardReader : reader.getSequentialSubReaders()) {
+            counts.add(executor.submit(new Callable<Integer>() {
+                @Override
+                public Integer call() throws IOException {
+                    TotalHitCountCollector collector = new TotalHitCountCollector();
+                    new IndexSearcher(shardReader).search(query, collector);
+                    return collector.getTotalHits();
+                }
+            }));
+        }
+
+        int total = 0;
+        try {
+            for (Future<Integer> count : counts) {
+                total += count.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while counting documents.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Unable to count documents.", e.getCause());
+        }
+        return total;
+    }
+}
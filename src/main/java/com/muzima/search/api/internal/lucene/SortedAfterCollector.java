@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2014. The Trustees of Indiana University.
+ *
+ * This version of the code is licensed under the MPL 2.0 Open Source license with additional
+ * healthcare disclaimer. If the user is an entity intending to commercialize any application
+ * that uses this code in a for-profit venture, please contact the copyright holder.
+ */
+
+package com.muzima.search.api.internal.lucene;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.FieldComparator;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopFieldCollector;
+
+import java.io.IOException;
+
+/**
+ * Collector to collect the top sorted hits which come after a previously returned hit. Lucene 3.6 only provide the
+ * <code>searchAfter</code> for relevance sorted query, this collector provide the same functionality for query sorted
+ * by the sort fields.
+ * <p/>
+ * Only hits sorted after the <code>after</code> hit are passed to the hit queue, so the queue never grow beyond the
+ * size of a single page.
+ */
+public class SortedAfterCollector extends Collector {
+
+    private final FieldDoc after;
+
+    private final SortField[] sortFields;
+
+    private final FieldComparator<?>[] comparators;
+
+    private final TopFieldCollector delegate;
+
+    private int docBase;
+
+    private int totalHits;
+
+    public SortedAfterCollector(final Sort sort, final FieldDoc after, final int numHits) throws IOException {
+        this.after = after;
+        this.sortFields = sort.getSort();
+        this.comparators = new FieldComparator<?>[sortFields.length];
+        for (int i = 0; i < sortFields.length; i++) {
+            comparators[i] = sortFields[i].getComparator(1, i);
+        }
+        this.delegate = TopFieldCollector.create(sort, numHits, true, false, false, true);
+    }
+
+    @Override
+    public void setScorer(final Scorer scorer) throws IOException {
+        for (FieldComparator<?> comparator : comparators) {
+            comparator.setScorer(scorer);
+        }
+        delegate.setScorer(scorer);
+    }
+
+    @Override
+    public void collect(final int doc) throws IOException {
+        totalHits++;
+        if (after == null || isAfter(doc)) {
+            delegate.collect(doc);
+        }
+    }
+
+    private boolean isAfter(final int doc) throws IOException {
+        for (int i = 0; i < comparators.length; i++) {
+            int compare = compareValue(comparators[i], doc, after.fields[i]);
+            if (sortFields[i].getReverse()) {
+                compare = -compare;
+            }
+            if (compare != 0) {
+                return compare > 0;
+            }
+        }
+        return docBase + doc > after.doc;
+    }
+
+    /**
+     * Compare the sort value of the document with the sort value of the <code>after</code> hit.
+     *
+     * @param comparator the comparator of the sort field.
+     * @param doc        the document, relative to the current reader.
+     * @param afterValue the sort value of the <code>after</code> hit, which has the type of the comparator values.
+     * @return the comparison of the document value with the <code>after</code> value.
+     * @throws IOException when reading the sort value failed.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> int compareValue(final FieldComparator<T> comparator, final int doc, final Object afterValue)
+            throws IOException {
+        comparator.copy(0, doc);
+        return comparator.compareValues(comparator.value(0), (T) afterValue);
+    }
+
+    @Override
+    public void setNextReader(final IndexReader reader, final int docBase) throws IOException {
+        this.docBase = docBase;
+        for (FieldComparator<?> comparator : comparators) {
+            comparator.setNextReader(reader, docBase);
+        }
+        delegate.setNextReader(reader, docBase);
+    }
+
+    @Override
+    public boolean acceptsDocsOutOfOrder() {
+        return false;
+    }
+
+    /**
+     * Get the collected top hits. The total hits of the returned object is the total number of documents matching
+     * the query, including the documents sorted before the <code>after</code> hit.
+     *
+     * @return the collected top hits.
+     */
+    public TopDocs topDocs() {
+        TopDocs topDocs = delegate.topDocs();
+        topDocs.totalHits = totalHits;
+        return topDocs;
+    }
+}
@@ -0,0 +1,341 @@
+/*
+ * Copyright (c) 2014. The Trustees of Indiana University.
+ *
+ * This version of the code is licensed under the MPL 2.0 Open Source license with additional
+ * healthcare disclaimer. If the user is an entity intending to commercialize any application
+ * that uses this code in a for-profit venture, please contact the copyright holder.
+ */
+
+package com.muzima.search.api.internal.lucene;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded queue of mutations applied to the index by a background thread. Callers submitting a mutation get a future
+ * which completes once the mutation is applied and committed, so the caller doesn't have to wait for the commit and
+ * the reopening of the searcher. When the queue is full, submitting a mutation blocks until the background thread
+ * catch up.
+ * <p/>
+ * The durability policy decide when the applied mutations are committed:
+ * <pre>
+ * batch     : commit after every mutation (default)
+ * documents : commit once the number of uncommitted documents reach the configured number of documents
+ * time      : commit once the oldest uncommitted mutation has waited for the configured interval
+ * </pre>
+ * Independent of the policy, {@link #flush()} commit all mutations submitted so far. Once the queue is closed using
+ * {@link #close()}, submitting a mutation fails.
+ */
+@Singleton
+public class WriteBehindQueue {
+
+    /**
+     * Mutation of the index applied by the background thread.
+     */
+    public interface Mutation {
+
+        /**
+         * Apply the mutation to the index without committing it.
+         *
+         * @return the number of changed documents.
+         * @throws IOException when applying the mutation failed.
+         */
+        int apply() throws IOException;
+    }
+
+    /**
+     * Commit of the applied mutations.
+     */
+    public interface Committer {
+
+        void commit() throws IOException;
+    }
+
+    public static final String DURABILITY_BATCH = "batch";
+
+    public static final String DURABILITY_DOCUMENTS = "documents";
+
+    public static final String DURABILITY_TIME = "time";
+
+    private static final int DEFAULT_QUEUE_SIZE = 100;
+
+    private static final int DEFAULT_DOCUMENTS = 1000;
+
+    private static final long DEFAULT_INTERVAL = 1000;
+
+    private final Logger logger = LoggerFactory.getLogger(WriteBehindQueue.class.getSimpleName());
+
+    private BlockingQueue<PendingMutation> queue;
+
+    private String durability = DURABILITY_BATCH;
+
+    private int documents = DEFAULT_DOCUMENTS;
+
+    private long interval = DEFAULT_INTERVAL;
+
+    private int queueSize = DEFAULT_QUEUE_SIZE;
+
+    private Committer committer;
+
+    private Thread thread;
+
+    private boolean closed;
+
+    @Inject(optional = true)
+    public void setQueueSize(final @Named("configuration.lucene.async.queue") Integer queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    @Inject(optional = true)
+    public void setDurability(final @Named("configuration.lucene.async.durability") String durability) {
+        this.durability = durability;
+    }
+
+    @Inject(optional = true)
+    public void setDocuments(final @Named("configuration.lucene.async.documents") Integer documents) {
+        this.documents = documents;
+    }
+
+    @Inject(optional = true)
+    public void setInterval(final @Named("configuration.lucene.async.interval") Long interval) {
+        this.interval = interval;
+    }
+
+    /**
+     * Submit a mutation to be applied by the background thread. Blocks while the queue is full.
+     *
+     * @param mutation  the mutation.
+     * @param committer the commit of the applied mutations.
+     * @return the future which completes once the mutation is applied and committed.
+     * @throws IOException when the queue is closed or when interrupted while waiting for space in the queue.
+     */
+    public Future<Void> submit(final Mutation mutation, final Committer committer) throws IOException {
+        PendingMutation pending = new PendingMutation(mutation, false);
+        put(pending, committer);
+        return pending;
+    }
+
+    /**
+     * Wait until all mutations submitted so far are applied and committed.
+     *
+     * @throws IOException when the commit failed.
+     */
+    public void flush() throws IOException {
+        synchronized (this) {
+            if (queue == null || closed) {
+                return;
+            }
+        }
+        PendingMutation flush = new PendingMutation(null, false);
+        put(flush, null);
+        await(flush);
+    }
+
+    /**
+     * Apply and commit all mutations submitted so far, then stop the background thread. Mutations submitted after the
+     * queue is closed are rejected.
+     *
+     * @throws IOException when the commit failed or when interrupted while waiting for the background thread.
+     */
+    public void close() throws IOException {
+        BlockingQueue<PendingMutation> currentQueue;
+        Thread currentThread;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            currentQueue = queue;
+            currentThread = thread;
+        }
+        if (currentQueue == null) {
+            return;
+        }
+        PendingMutation last = new PendingMutation(null, true);
+        try {
+            currentQueue.put(last);
+            try {
+                await(last);
+            } finally {
+                currentThread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while closing the write queue.");
+        } finally {
+            // mutations racing with the close are never applied.
+            List<PendingMutation> rejected = new ArrayList<PendingMutation>();
+            currentQueue.drainTo(rejected);
+            for (PendingMutation pending : rejected) {
+                pending.fail(new IOException("The write queue is closed."));
+            }
+        }
+    }
+
+    private void put(final PendingMutation element, final Committer committer) throws IOException {
+        BlockingQueue<PendingMutation> currentQueue = start(committer);
+        try {
+            currentQueue.put(element);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for space in the write queue.");
+        }
+    }
+
+    private synchronized BlockingQueue<PendingMutation> start(final Committer committer) throws IOException {
+        if (closed) {
+            throw new IOException("The write queue is closed.");
+        }
+        if (committer != null) {
+            this.committer = committer;
+        }
+        if (queue == null) {
+            queue = new ArrayBlockingQueue<PendingMutation>(Math.max(1, queueSize));
+            thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    process();
+                }
+            }, "lucene-write-behind");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        return queue;
+    }
+
+    private void await(final Future<Void> future) throws IOException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the write queue.");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Unable to apply the queued changes.", cause);
+        }
+    }
+
+    /**
+     * Loop of the background thread, applying the queued mutations and committing them according to the durability
+     * policy.
+     */
+    private void process() {
+        List<PendingMutation> uncommitted = new ArrayList<PendingMutation>();
+        List<PendingMutation> flushes = new ArrayList<PendingMutation>();
+        int uncommittedDocuments = 0;
+        long uncommittedSince = 0;
+        while (true) {
+            PendingMutation pending;
+            try {
+                if (uncommitted.isEmpty() || !DURABILITY_TIME.equals(durability)) {
+                    pending = queue.take();
+                } else {
+                    long remaining = uncommittedSince + interval - System.currentTimeMillis();
+                    pending = queue.poll(Math.max(0, remaining), TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            boolean commitDue = false;
+            if (pending != null && pending.mutation != null) {
+                try {
+                    int changes = pending.mutation.apply();
+                    if (uncommitted.isEmpty()) {
+                        uncommittedSince = System.currentTimeMillis();
+                    }
+                    uncommitted.add(pending);
+                    uncommittedDocuments += changes;
+                } catch (Exception e) {
+                    pending.fail(e);
+                }
+                if (DURABILITY_DOCUMENTS.equals(durability)) {
+                    commitDue = uncommittedDocuments >= documents;
+                } else if (!DURABILITY_TIME.equals(durability)) {
+                    commitDue = true;
+                }
+            } else if (pending != null) {
+                flushes.add(pending);
+                commitDue = true;
+            }
+            if (DURABILITY_TIME.equals(durability) && !uncommitted.isEmpty()) {
+                commitDue = commitDue || System.currentTimeMillis() - uncommittedSince >= interval;
+            }
+
+            if (commitDue) {
+                Exception failure = null;
+                try {
+                    if (!uncommitted.isEmpty() || !flushes.isEmpty()) {
+                        committer.commit();
+                    }
+                } catch (Exception e) {
+                    logger.error("Unable to commit the queued changes.", e);
+                    failure = e;
+                }
+                uncommitted.addAll(flushes);
+                for (PendingMutation committed : uncommitted) {
+                    if (failure == null) {
+                        committed.succeed();
+                    } else {
+                        committed.fail(failure);
+                    }
+                }
+                uncommitted.clear();
+                flushes.clear();
+                uncommittedDocuments = 0;
+            }
+            if (pending != null && pending.last) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Future of a queued mutation or, without a mutation, of a flush, completed by the background thread once the
+     * mutation is committed.
+     */
+    private static class PendingMutation extends FutureTask<Void> {
+
+        private final Mutation mutation;
+
+        /**
+         * Whether the background thread stops once this flush is committed.
+         */
+        private final boolean last;
+
+        private PendingMutation(final Mutation mutation, final boolean last) {
+            super(new Runnable() {
+                @Override
+                public void run() {
+                }
+            }, null);
+            this.mutation = mutation;
+            this.last = last;
+        }
+
+        private void succeed() {
+            set(null);
+        }
+
+        private void fail(final Exception exception) {
+            setException(exception);
+        }
+    }
+}
@@ -10,6 +10,7 @@ package com.muzima.search.api.internal.provider;
 
 import com.google.inject.Inject;
 import com.google.inject.name.Named;
+import com.muzima.search.api.util.StringUtil;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.SimpleFSDirectory;
 import org.apache.lucene.store.transform.CompressedIndexDirectory;
@@ -57,6 +58,27 @@ public class    DirectoryProvider implements SearchProvider<Directory> {
 
     @Override
     public Directory get() throws IOException {
+        return get(StringUtil.EMPTY);
+    }
+
+    /**
+     * Get the directory of an index partition. Each partition is stored in its own sub directory of the configured
+     * directory, named after the partition. The empty partition is the configured directory itself.
+     * <p/>
+     * The characters of the partition name which are not safe in a file name are replaced, and the hash of the
+     * original name is appended, so partitions whose names differ only by the replaced characters or by their case
+     * are still stored in different directories.
+     *
+     * @param partition the name of the partition.
+     * @return the directory of the partition.
+     * @throws IOException when creating the directory failed.
+     * @should store the partitions whose names differ only by unsafe characters or case in different directories.
+     */
+    public Directory get(final String partition) throws IOException {
+        File file = new File(this.directory);
+        if (!StringUtil.isEmpty(partition)) {
+            file = new File(file, getDirectoryName(partition));
+        }
         // Apparently FSDirectory.open(File) will try to find the best implementation for the platform. In Android case,
         // this method will use the NIOFSDirectory implementation. Now this implementation have some issues with Future
         // object. So, if the implementation is planning to use a lot of Future object (similar to Async task), then we
@@ -64,7 +86,7 @@ public class    DirectoryProvider implements SearchProvider<Directory> {
         // See the following for reference:
         // * https://lucene.apache.org/core/3_6_1/api/all/org/apache/lucene/store/FSDirectory.html
         // * http://lucene.472066.n3.nabble.com/ClosedChannelException-from-IndexWriter-getReader-td706613.html
-        Directory directory = new SimpleFSDirectory(new File(this.directory));
+        Directory directory = new SimpleFSDirectory(file);
 
         if (usingEncryption) {
             byte[] salt = new byte[16];
@@ -115,4 +137,10 @@ public class    DirectoryProvider implements SearchProvider<Directory> {
         }
         return directory;
     }
+
+    private String getDirectoryName(final String partition) {
+        // the hash of a string is specified by the language, so the directory of a partition is stable across
+        // restarts.
+        return partition.replaceAll("[^A-Za-z0-9._-]", "_") + "-" + Integer.toHexString(partition.hashCode());
+    }
 }
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2014. The Trustees of Indiana University.
+ *
+ * This version of the code is licensed under the MPL 2.0 Open Source license with additional
+ * healthcare disclaimer. If the user is an entity intending to commercialize any application
+ * that uses this code in a for-profit venture, please contact the copyright holder.
+ */
+
+package com.muzima.search.api.internal.provider;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.name.Named;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Provider of the thread pool used to search the segments of the index concurrently. The number of threads default to
+ * the number of available processors. The threads are daemon threads, so an idle pool never prevent the application
+ * from exiting.
+ */
+public class ExecutorProvider implements Provider<ExecutorService> {
+
+    @Inject(optional = true)
+    @Named("configuration.lucene.search.threads")
+    Integer threads;
+
+    @Override
+    public ExecutorService get() {
+        int poolSize = Runtime.getRuntime().availableProcessors();
+        if (threads != null && threads > 0) {
+            poolSize = threads;
+        }
+        return Executors.newFixedThreadPool(poolSize, new ThreadFactory() {
+            private final AtomicInteger counter = new AtomicInteger();
+
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                Thread thread = new Thread(runnable, "lucene-search-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2014. The Trustees of Indiana University.
+ *
+ * This version of the code is licensed under the MPL 2.0 Open Source license with additional
+ * healthcare disclaimer. If the user is an entity intending to commercialize any application
+ * that uses this code in a for-profit venture, please contact the copyright holder.
+ */
+
+package com.muzima.search.api.internal.provider;
+
+import com.google.inject.Inject;
+import com.google.inject.name.Named;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.SearcherFactory;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Factory of index searchers which search the segments of large indexes concurrently using the search thread pool.
+ * Indexes with less documents than the threshold, or with a single segment, are searched on the calling thread, as
+ * handing the work over to the thread pool would cost more than it saves.
+ */
+public class ExecutorSearcherFactory extends SearcherFactory {
+
+    private static final int DEFAULT_THRESHOLD = 100000;
+
+    private final ExecutorService executor;
+
+    @Inject(optional = true)
+    @Named("configuration.lucene.search.threshold")
+    Integer threshold;
+
+    @Inject
+    protected ExecutorSearcherFactory(final @Named("configuration.lucene.search.executor") ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public IndexSearcher newSearcher(final IndexReader reader) throws IOException {
+        int minimumDocuments = (threshold == null) ? DEFAULT_THRESHOLD : threshold;
+        IndexReader[] segments = reader.getSequentialSubReaders();
+        if (minimumDocuments > 0 && reader.maxDoc() >= minimumDocuments
+                && segments != null && segments.length > 1) {
+            return new IndexSearcher(reader, executor);
+        }
+        return new IndexSearcher(reader);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2014. The Trustees of Indiana University.
+ *
+ * This version of the code is licensed under the MPL 2.0 Open Source license with additional
+ * healthcare disclaimer. If the user is an entity intending to commercialize any application
+ * that uses this code in a for-profit venture, please contact the copyright holder.
+ */
+
+package com.muzima.search.api.internal.provider;
+
+import com.google.inject.Inject;
+import com.google.inject.name.Named;
+import com.muzima.search.api.util.StringUtil;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.store.Directory;
+
+import java.io.IOException;
+
+/**
+ * Provider of the searcher manager sharing reference counted index searchers between concurrent queries. Readers
+ * replaced by a refresh are closed once the last query using them release them. In near real time mode, the searchers
+ * are opened from the shared index writer.
+ * <p/>
+ * When the index is partitioned, every partition has its own searcher manager opened from the writer or the
+ * directory of the partition.
+ */
+public class SearcherManagerProvider implements SearchProvider<SearcherManager> {
+
+    private final WriterProvider writerProvider;
+
+    private final DirectoryProvider directoryProvider;
+
+    private final SearcherFactory searcherFactory;
+
+    @Inject(optional = true)
+    @Named("configuration.lucene.nrt")
+    Boolean nearRealTime;
+
+    @Inject
+    protected SearcherManagerProvider(final WriterProvider writerProvider,
+                                      final DirectoryProvider directoryProvider,
+                                      final SearcherFactory searcherFactory) {
+        this.writerProvider = writerProvider;
+        this.directoryProvider = directoryProvider;
+        this.searcherFactory = searcherFactory;
+    }
+
+    @Override
+    public SearcherManager get() throws IOException {
+        return get(StringUtil.EMPTY);
+    }
+
+    /**
+     * Create the searcher manager of an index partition.
+     *
+     * @param partition the name of the partition, empty for the shared index.
+     * @return the searcher manager of the partition.
+     * @throws IOException when opening the partition failed.
+     */
+    public SearcherManager get(final String partition) throws IOException {
+        if (Boolean.TRUE.equals(nearRealTime)) {
+            return new SearcherManager(writerProvider.get(partition), true, searcherFactory);
+        }
+        Directory directory = directoryProvider.get(partition);
+        if (!IndexReader.indexExists(directory)) {
+            IndexWriter writer = writerProvider.get(partition);
+            writer.commit();
+        }
+        return new SearcherManager(directory, searcherFactory);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2014. The Trustees of Indiana University.
+ *
+ * This version of the code is licensed under the MPL 2.0 Open Source license with additional
+ * healthcare disclaimer. If the user is an entity intending to commercialize any application
+ * that uses this code in a for-profit venture, please contact the copyright holder.
+ */
+
+package com.muzima.search.api.internal.provider;
+
+import com.google.inject.Inject;
+import com.google.inject.name.Named;
+import com.muzima.search.api.internal.cache.FilterCache;
+import com.muzima.search.api.internal.lucene.DiscriminatorFilter;
+import com.muzima.search.api.internal.lucene.SearcherRefresher;
+import com.muzima.search.api.resource.Resource;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.search.ConstantScoreQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TotalHitCountCollector;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Factory of index searchers which warm the new searcher before it's published. The cached discriminator filters and
+ * the field caches of the sortable fields are loaded for the new segments, so the first queries on the new searcher
+ * don't pay for it. Segments shared with the previous searcher are already warm and cost nothing.
+ * <p/>
+ * Warming is enabled by default when the searcher is refreshed in the background, and can be switched using
+ * <code>configuration.lucene.refresh.warm</code>.
+ */
+public class WarmingSearcherFactory extends ExecutorSearcherFactory {
+
+    @Inject
+    private FilterCache filterCache;
+
+    @Inject
+    private SearcherRefresher searcherRefresher;
+
+    @Inject
+    private Map<String, Resource> resourceRegistry;
+
+    @Inject(optional = true)
+    @Named("configuration.lucene.refresh.warm")
+    Boolean warm;
+
+    @Inject
+    protected WarmingSearcherFactory(final @Named("configuration.lucene.search.executor") ExecutorService executor) {
+        super(executor);
+    }
+
+    @Override
+    public IndexSearcher newSearcher(final IndexReader reader) throws IOException {
+        IndexSearcher searcher = super.newSearcher(reader);
+        boolean warming = (warm == null) ? searcherRefresher.isEnabled() : warm;
+        if (warming) {
+            warm(searcher);
+        }
+        return searcher;
+    }
+
+    private void warm(final IndexSearcher searcher) throws IOException {
+        for (DiscriminatorFilter filter : filterCache.getFilters()) {
+            searcher.search(new ConstantScoreQuery(filter), new TotalHitCountCollector());
+        }
+        for (Resource resource : resourceRegistry.values()) {
+            List<SortField> sortFields = resource.getSortableFields();
+            if (!sortFields.isEmpty()) {
+                Sort sort = new Sort(sortFields.toArray(new SortField[sortFields.size()]));
+                searcher.search(new MatchAllDocsQuery(), 1, sort);
+            }
+        }
+    }
+}
@@ -9,25 +9,66 @@
 package com.muzima.search.api.internal.provider;
 
 import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import com.muzima.search.api.util.StringUtil;
 import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.index.ConcurrentMergeScheduler;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.TieredMergePolicy;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.util.Version;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
+/**
+ * Provider of the index writer shared by all writers of the repository. The writer is opened on the first request and
+ * kept open, so writing a batch of objects only pays for the commit of the changes, not for acquiring the write lock
+ * and opening the writer. There is no shutdown hook, the writer and the write lock of the index are held until the
+ * repository is explicitly closed, so applications must call
+ * {@link com.muzima.search.api.service.RestAssuredService#close()} once done with the repository.
+ * <p/>
+ * When the index is partitioned, every partition has its own writer on the directory of the partition.
+ */
+@Singleton
 public class WriterProvider implements SearchProvider<IndexWriter> {
 
     private final Version version;
 
     private final Analyzer analyzer;
 
-    private final SearchProvider<Directory> directoryProvider;
+    private final DirectoryProvider directoryProvider;
+
+    private final Map<String, IndexWriter> writers = new HashMap<String, IndexWriter>();
+
+    @Inject(optional = true)
+    @Named("configuration.lucene.writer.buffer")
+    Double ramBufferSize;
+
+    @Inject(optional = true)
+    @Named("configuration.lucene.merge.factor")
+    Double mergeFactor;
+
+    @Inject(optional = true)
+    @Named("configuration.lucene.merge.deletes")
+    Double mergeDeletes;
+
+    @Inject(optional = true)
+    @Named("configuration.lucene.merge.threads")
+    Integer mergeThreads;
+
+    @Inject(optional = true)
+    @Named("configuration.lucene.merge.priority")
+    Integer mergePriority;
 
     @Inject
     protected WriterProvider(final Version version, final Analyzer analyzer,
-                             final SearchProvider<Directory> directoryProvider) {
+                             final DirectoryProvider directoryProvider) {
         this.version = version;
         this.analyzer = analyzer;
         this.directoryProvider = directoryProvider;
@@ -35,8 +76,119 @@ public class WriterProvider implements SearchProvider<IndexWriter> {
 
     @Override
     public IndexWriter get() throws IOException {
-        Directory directory = directoryProvider.get();
+        return get(StringUtil.EMPTY);
+    }
+
+    /**
+     * Get the writer of an index partition, opening it on the first request.
+     *
+     * @param partition the name of the partition, empty for the shared index.
+     * @return the writer of the partition.
+     * @throws IOException when opening the writer failed.
+     */
+    public synchronized IndexWriter get(final String partition) throws IOException {
+        IndexWriter writer = writers.get(partition);
+        if (writer == null) {
+            Directory directory = directoryProvider.get(partition);
+            writer = new IndexWriter(directory, createConfig());
+            writers.put(partition, writer);
+        }
+        return writer;
+    }
+
+    /**
+     * Get the writer of an index partition without opening it.
+     *
+     * @param partition the name of the partition, empty for the shared index.
+     * @return the writer of the partition or null when the writer is not open.
+     */
+    public synchronized IndexWriter getOpenWriter(final String partition) {
+        return writers.get(partition);
+    }
+
+    /**
+     * Get the writers of all open partitions.
+     *
+     * @return the open writers.
+     */
+    public synchronized List<IndexWriter> getWriters() {
+        return new ArrayList<IndexWriter>(writers.values());
+    }
+
+    /**
+     * Create the configuration of the index writer. The RAM buffer size, the merge factor (the number of segments per
+     * tier), the percentage of deleted documents allowed when reclaiming deletes, and the number and priority of the
+     * merge threads can be configured, everything else use the lucene defaults. Lowering the number of merge threads
+     * and their priority throttle the IO of the background merges.
+     *
+     * @return the configuration of the index writer.
+     */
+    private IndexWriterConfig createConfig() {
         IndexWriterConfig config = new IndexWriterConfig(version, analyzer);
-        return new IndexWriter(directory, config);
+        if (ramBufferSize != null) {
+            config.setRAMBufferSizeMB(ramBufferSize);
+        }
+
+        TieredMergePolicy mergePolicy = new TieredMergePolicy();
+        if (mergeFactor != null) {
+            mergePolicy.setSegmentsPerTier(mergeFactor);
+            mergePolicy.setMaxMergeAtOnce(Math.max(2, mergeFactor.intValue()));
+        }
+        if (mergeDeletes != null) {
+            mergePolicy.setForceMergeDeletesPctAllowed(mergeDeletes);
+        }
+        config.setMergePolicy(mergePolicy);
+
+        ConcurrentMergeScheduler mergeScheduler = new ConcurrentMergeScheduler();
+        if (mergeThreads != null && mergeThreads > 0) {
+            mergeScheduler.setMaxMergeCount(mergeThreads + 2);
+            mergeScheduler.setMaxThreadCount(mergeThreads);
+        }
+        if (mergePriority != null) {
+            mergeScheduler.setMergeThreadPriority(mergePriority);
+        }
+        config.setMergeScheduler(mergeScheduler);
+        return config;
+    }
+
+    /**
+     * Discard the changes since the last commit and close the index writers. The next request for a writer will open
+     * a new writer on the last committed state of the partition.
+     *
+     * @throws IOException when rolling back a writer failed.
+     */
+    public synchronized void rollback() throws IOException {
+        IOException exception = null;
+        for (IndexWriter writer : writers.values()) {
+            try {
+                writer.rollback();
+            } catch (IOException e) {
+                exception = e;
+            }
+        }
+        writers.clear();
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    /**
+     * Commit the pending changes and close the index writers. The next request for a writer will open a new writer.
+     *
+     * @throws IOException when committing or closing a writer failed.
+     */
+    public synchronized void close() throws IOException {
+        IOException exception = null;
+        for (IndexWriter writer : writers.values()) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                exception = e;
+            }
+        }
+        writers.clear();
+        if (exception != null) {
+            throw exception;
+        }
     }
 }
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2014. The Trustees of Indiana University.
+ *
+ * This version of the code is licensed under the MPL 2.0 Open Source license with additional
+ * healthcare disclaimer. If the user is an entity intending to commercialize any application
+ * that uses this code in a for-profit venture, please contact the copyright holder.
+ */
+
+package com.muzima.search.api.model.object;
+
+import com.muzima.search.api.resource.Resource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Ordered list of creates, updates and deletes of objects across resources, written to the local repository as a
+ * single transaction. Either all operations of the batch are committed together, or none of them is.
+ */
+public final class WriteBatch {
+
+    /**
+     * Type of a single operation of the batch.
+     */
+    public enum Type {
+        CREATE, UPDATE, DELETE
+    }
+
+    /**
+     * Single operation of the batch, applied to a list of objects of the same resource.
+     */
+    public static final class Operation {
+
+        private final Type type;
+
+        private final List<Searchable> objects;
+
+        private final Resource resource;
+
+        private Operation(final Type type, final List<Searchable> objects, final Resource resource) {
+            this.type = type;
+            this.objects = objects;
+            this.resource = resource;
+        }
+
+        /**
+         * Get the type of the operation.
+         *
+         * @return the type of the operation.
+         */
+        public Type getType() {
+            return type;
+        }
+
+        /**
+         * Get the objects of the operation.
+         *
+         * @return the objects of the operation.
+         */
+        public List<Searchable> getObjects() {
+            return objects;
+        }
+
+        /**
+         * Get the resource describing how the objects are indexed.
+         *
+         * @return the resource of the objects.
+         */
+        public Resource getResource() {
+            return resource;
+        }
+    }
+
+    private final List<Operation> operations = new ArrayList<Operation>();
+
+    /**
+     * Add the creation of the objects to the batch.
+     *
+     * @param objects  the objects to be created.
+     * @param resource the resource object which will describe how to index the json resource to lucene.
+     * @return this batch.
+     */
+    public WriteBatch createObjects(final List<? extends Searchable> objects, final Resource resource) {
+        return add(Type.CREATE, objects, resource);
+    }
+
+    /**
+     * Add the update of the objects to the batch.
+     *
+     * @param objects  the objects to be updated.
+     * @param resource the resource object which will describe how to index the json resource to lucene.
+     * @return this batch.
+     */
+    public WriteBatch updateObjects(final List<? extends Searchable> objects, final Resource resource) {
+        return add(Type.UPDATE, objects, resource);
+    }
+
+    /**
+     * Add the removal of the objects to the batch.
+     *
+     * @param objects  the objects to be removed.
+     * @param resource the resource object which will describe how to index the json resource to lucene.
+     * @return this batch.
+     */
+    public WriteBatch deleteObjects(final List<? extends Searchable> objects, final Resource resource) {
+        return add(Type.DELETE, objects, resource);
+    }
+
+    private WriteBatch add(final Type type, final List<? extends Searchable> objects, final Resource resource) {
+        operations.add(new Operation(type, new ArrayList<Searchable>(objects), resource));
+        return this;
+    }
+
+    /**
+     * Get the operations of the batch in the order they were added.
+     *
+     * @return the operations of the batch.
+     */
+    public List<Operation> getOperations() {
+        return Collections.unmodifiableList(operations);
+    }
+
+    /**
+     * Get the number of objects changed by the batch.
+     *
+     * @return the number of objects changed by the batch.
+     */
+    public int size() {
+        int size = 0;
+        for (Operation operation : operations) {
+            size += operation.getObjects().size();
+        }
+        return size;
+    }
+}
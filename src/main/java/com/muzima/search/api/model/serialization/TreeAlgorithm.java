@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2014. The Trustees of Indiana University.
+ *
+ * This version of the code is licensed under the MPL 2.0 Open Source license with additional
+ * healthcare disclaimer. If the user is an entity intending to commercialize any application
+ * that uses this code in a for-profit venture, please contact the copyright holder.
+ */
+
+package com.muzima.search.api.model.serialization;
+
+import com.muzima.search.api.model.object.Searchable;
+
+import java.io.IOException;
+
+/**
+ * Extension of the algorithm which can serialize the object directly into the parsed json tree. The indexer extract
+ * the searchable fields from the tree and store the string representation of the tree, instead of serializing the
+ * object into a String and then parsing the String back into the json tree.
+ */
+public interface TreeAlgorithm extends Algorithm {
+
+    /**
+     * Implementation of this method will define how the object will be serialized into the json tree. The tree must
+     * be made of json-smart <code>JSONObject</code> and <code>JSONArray</code> nodes, whose string representation is
+     * the same as the output of the <code>serialize</code> method.
+     *
+     * @param object the object
+     * @param isFullSerialization determines whether to perform full serialization. If set to false,
+     *                             the implementation of this method can perform serialization of minimal fields
+     * @return the json tree representation
+     */
+    Object serializeTree(final Searchable object, final boolean isFullSerialization) throws IOException;
+}
@@ -17,22 +17,24 @@ import com.muzima.search.api.internal.lucene.DefaultIndexer;
 import com.muzima.search.api.internal.lucene.Indexer;
 import com.muzima.search.api.internal.provider.AnalyzerProvider;
 import com.muzima.search.api.internal.provider.DirectoryProvider;
-import com.muzima.search.api.internal.provider.ReaderProvider;
+import com.muzima.search.api.internal.provider.ExecutorProvider;
 import com.muzima.search.api.internal.provider.SearchProvider;
-import com.muzima.search.api.internal.provider.SearcherProvider;
+import com.muzima.search.api.internal.provider.SearcherManagerProvider;
+import com.muzima.search.api.internal.provider.WarmingSearcherFactory;
 import com.muzima.search.api.internal.provider.WriterProvider;
 import com.muzima.search.api.resource.Resource;
 import com.muzima.search.api.service.RestAssuredService;
 import com.muzima.search.api.service.impl.RestAssuredServiceImpl;
 import org.apache.lucene.analysis.Analyzer;
-import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
-import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.util.Version;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 public class SearchModule extends AbstractModule {
 
@@ -57,6 +59,15 @@ public class SearchModule extends AbstractModule {
                 .to(RestAssuredServiceImpl.class)
                 .in(Singleton.class);
 
+        bind(ExecutorService.class)
+                .annotatedWith(Names.named("configuration.lucene.search.executor"))
+                .toProvider(ExecutorProvider.class)
+                .in(Singleton.class);
+
+        bind(SearcherFactory.class)
+                .to(WarmingSearcherFactory.class)
+                .in(Singleton.class);
+
         bind(Version.class).toInstance(Version.LUCENE_36);
         bind(Analyzer.class).toProvider(AnalyzerProvider.class);
 
@@ -66,12 +77,8 @@ public class SearchModule extends AbstractModule {
                 .in(Singleton.class);
 
         ThrowingProviderBinder.create(binder())
-                .bind(SearchProvider.class, IndexReader.class)
-                .to(ReaderProvider.class);
-
-        ThrowingProviderBinder.create(binder())
-                .bind(SearchProvider.class, IndexSearcher.class)
-                .to(SearcherProvider.class);
+                .bind(SearchProvider.class, SearcherManager.class)
+                .to(SearcherManagerProvider.class);
 
         ThrowingProviderBinder.create(binder())
                 .bind(SearchProvider.class, IndexWriter.class)
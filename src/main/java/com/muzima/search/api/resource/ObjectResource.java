@@ -8,9 +8,11 @@
 
 package com.muzima.search.api.resource;
 
+import com.jayway.jsonpath.JsonPath;
 import com.muzima.search.api.model.object.Searchable;
 import com.muzima.search.api.model.resolver.Resolver;
 import com.muzima.search.api.model.serialization.Algorithm;
+import com.muzima.search.api.model.serialization.TreeAlgorithm;
 import org.apache.lucene.search.SortField;
 
 import java.io.IOException;
@@ -20,6 +22,8 @@ import java.util.Map;
 
 public class ObjectResource implements Resource {
 
+    private static final JsonPath ROOT_PATH = JsonPath.compile("$");
+
     private final String name;
 
     private final String rootNode;
@@ -218,6 +222,21 @@ public class ObjectResource implements Resource {
         return getAlgorithm().serialize(object, true);
     }
 
+    /**
+     * Perform serialization for the object and returning the parsed json tree of the object. The serialization is
+     * delegated to the <code>Algorithm</code> object when the algorithm is a <code>TreeAlgorithm</code>, otherwise the
+     * String representation of the object is parsed.
+     *
+     * @param object the object
+     * @return the json tree representation of the object
+     */
+    public Object serializeTree(final Searchable object) throws IOException {
+        if (getAlgorithm() instanceof TreeAlgorithm) {
+            return ((TreeAlgorithm) getAlgorithm()).serializeTree(object, true);
+        }
+        return ROOT_PATH.read(serialize(object));
+    }
+
     /**
      * Perform de-serialization of the object's String representation into the concrete object representation. Default
      * implementation should delegate the serialization to the <code>Algorithm</code> object.
@@ -8,6 +8,8 @@
 
 package com.muzima.search.api.resource;
 
+import com.jayway.jsonpath.JsonPath;
+
 public class SearchableField {
 
     private final String name;
@@ -16,10 +18,13 @@ public class SearchableField {
 
     private final Boolean unique;
 
+    private final JsonPath path;
+
     public SearchableField(final String name, final String expression, final Boolean unique) {
         this.name = name;
         this.expression = expression;
         this.unique = unique;
+        this.path = JsonPath.compile(expression);
     }
 
     /**
@@ -40,6 +45,16 @@ public class SearchableField {
         return expression;
     }
 
+    /**
+     * Get the compiled expression to get the actual value of the searchable field. The expression is compiled once
+     * when the field is created and can be shared between threads.
+     *
+     * @return the compiled expression to get the value of the searchable value
+     */
+    public JsonPath getPath() {
+        return path;
+    }
+
     /**
      * Flag to determine whether the value of this field would be unique for a resource.
      *
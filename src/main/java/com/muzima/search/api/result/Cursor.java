@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2014. The Trustees of Indiana University.
+ *
+ * This version of the code is licensed under the MPL 2.0 Open Source license with additional
+ * healthcare disclaimer. If the user is an entity intending to commercialize any application
+ * that uses this code in a for-profit venture, please contact the copyright holder.
+ */
+
+package com.muzima.search.api.result;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Opaque position inside the result of a query. A cursor is returned with each page of objects and can be passed
+ * back to the search api to retrieve the next page of the same query without collecting the previous pages again.
+ * <p/>
+ * A cursor is bound to the query (filters or search string and sort order) which created it and should only be used
+ * to resume that query. Documents created or deleted after the cursor was created may shift the position of the
+ * remaining results.
+ * <p/>
+ * A cursor is also bound to the index segments it was created on. Commits adding new segments keep the cursor valid,
+ * but once the segment of the last hit, or a segment before it, is merged, the position can't be resolved anymore
+ * and resuming the query fails. The query must then be restarted from the first page.
+ * <p/>
+ * The accessors expose the position to the indexer, callers should treat the cursor as an opaque value.
+ */
+public final class Cursor implements Serializable {
+
+    private static final long serialVersionUID = 2L;
+
+    private final String signature;
+
+    private final List<String> segments;
+
+    private final int doc;
+
+    private final float score;
+
+    private final Object[] values;
+
+    private final int position;
+
+    /**
+     * Create a cursor pointing after the last hit returned to the caller.
+     *
+     * @param signature the signature of the query.
+     * @param segments  the segments of the index the hit was found in.
+     * @param doc       the document id of the last hit.
+     * @param score     the score of the last hit.
+     * @param values    the sort values of the last hit, null when the query is sorted by relevance.
+     * @param position  the number of hits returned to the caller so far.
+     */
+    public Cursor(final String signature, final List<String> segments, final int doc, final float score,
+                  final Object[] values, final int position) {
+        this.signature = signature;
+        this.segments = new ArrayList<String>(segments);
+        this.doc = doc;
+        this.score = score;
+        this.values = (values == null) ? null : values.clone();
+        this.position = position;
+    }
+
+    /**
+     * Get the signature of the query for which this cursor was created.
+     *
+     * @return the query signature.
+     */
+    public String getSignature() {
+        return signature;
+    }
+
+    /**
+     * Get the segments of the index the last hit was found in.
+     *
+     * @return the segments of the index.
+     */
+    public List<String> getSegments() {
+        return Collections.unmodifiableList(segments);
+    }
+
+    /**
+     * Get the document id of the last hit returned to the caller.
+     *
+     * @return the document id of the last hit.
+     */
+    public int getDoc() {
+        return doc;
+    }
+
+    /**
+     * Get the score of the last hit returned to the caller.
+     *
+     * @return the score of the last hit.
+     */
+    public float getScore() {
+        return score;
+    }
+
+    /**
+     * Get the sort values of the last hit returned to the caller.
+     *
+     * @return the sort values of the last hit, null when the query is sorted by relevance.
+     */
+    public Object[] getValues() {
+        return (values == null) ? null : values.clone();
+    }
+
+    /**
+     * Get the number of hits returned to the caller so far.
+     *
+     * @return the number of hits returned to the caller so far.
+     */
+    public int getPosition() {
+        return position;
+    }
+}
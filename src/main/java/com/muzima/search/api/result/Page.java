@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2014. The Trustees of Indiana University.
+ *
+ * This version of the code is licensed under the MPL 2.0 Open Source license with additional
+ * healthcare disclaimer. If the user is an entity intending to commercialize any application
+ * that uses this code in a for-profit venture, please contact the copyright holder.
+ */
+
+package com.muzima.search.api.result;
+
+import java.util.List;
+
+/**
+ * A single page of objects returned by a cursor based query.
+ */
+public class Page<T> {
+
+    private final List<T> objects;
+
+    private final Cursor cursor;
+
+    private final int totalHits;
+
+    public Page(final List<T> objects, final Cursor cursor, final int totalHits) {
+        this.objects = objects;
+        this.cursor = cursor;
+        this.totalHits = totalHits;
+    }
+
+    /**
+     * Get the objects in this page.
+     *
+     * @return the objects in this page.
+     */
+    public List<T> getObjects() {
+        return objects;
+    }
+
+    /**
+     * Get the cursor pointing to the next page of the query.
+     *
+     * @return the cursor for the next page or null when this is the last page.
+     */
+    public Cursor getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Get the total number of objects matching the query.
+     *
+     * @return the total number of objects matching the query.
+     */
+    public int getTotalHits() {
+        return totalHits;
+    }
+
+    /**
+     * Flag to determine whether there are more objects after this page.
+     *
+     * @return true if there's a next page for the query.
+     */
+    public boolean hasNext() {
+        return cursor != null;
+    }
+}
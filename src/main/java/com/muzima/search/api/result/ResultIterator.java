@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2014. The Trustees of Indiana University.
+ *
+ * This version of the code is licensed under the MPL 2.0 Open Source license with additional
+ * healthcare disclaimer. If the user is an entity intending to commercialize any application
+ * that uses this code in a for-profit venture, please contact the copyright holder.
+ */
+
+package com.muzima.search.api.result;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+/**
+ * Iterator over the objects matching a query. The objects are loaded from the index and de-serialized one at a time
+ * when the caller ask for the next object, so the whole result doesn't need to fit in memory.
+ * <p/>
+ * The iterator hold a reference to the index searcher used to execute the query, the caller must close the iterator
+ * when done with it.
+ */
+public interface ResultIterator<T> extends Iterator<T>, Closeable {
+
+    /**
+     * Get the total number of objects matching the query.
+     *
+     * @return the total number of objects matching the query.
+     */
+    int size();
+}
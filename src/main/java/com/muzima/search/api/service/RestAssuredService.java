@@ -10,13 +10,19 @@ package com.muzima.search.api.service;
 
 import com.muzima.search.api.filter.Filter;
 import com.muzima.search.api.model.object.Searchable;
+import com.muzima.search.api.model.object.WriteBatch;
 import com.muzima.search.api.resource.Resource;
+import com.muzima.search.api.result.Cursor;
+import com.muzima.search.api.result.Page;
+import com.muzima.search.api.result.ResultIterator;
 import org.apache.lucene.queryParser.ParseException;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Future;
 
 public interface RestAssuredService {
 
@@ -62,6 +68,8 @@ public interface RestAssuredService {
      * @should return object with matching key and type.
      * @should return null when no object match the key and type.
      * @should throw IOException if the key and class unable to return unique object.
+     * @should return cached object until the object is updated.
+     * @should return a new object on every call when the resource is not cached.
      */
     <T> T getObject(final String key, final Class<T> clazz) throws IOException;
 
@@ -86,6 +94,54 @@ public interface RestAssuredService {
 
     Boolean objectExists(final String key, final Resource resource) throws IOException;
 
+    /**
+     * Search for objects with matching <code>keys</code> and <code>clazz</code> type from the local repository. All
+     * keys are resolved in a single pass over the index, keys without matching object are not included in the
+     * returned map.
+     *
+     * @param keys  the keys to distinguish the objects.
+     * @param clazz the expected return type of the objects.
+     * @return map of each key to the object with matching key and clazz.
+     * @should return objects with matching keys and type.
+     * @should throw IOException if a key and class unable to return unique object.
+     * @should return the updated objects when the resource is cached.
+     */
+    <T> Map<String, T> getObjects(final Collection<String> keys, final Class<T> clazz) throws IOException;
+
+    /**
+     * Check whether objects with matching <code>keys</code> and <code>clazz</code> type exist in the local repository.
+     * All keys are resolved in a single pass over the index.
+     *
+     * @param keys  the keys to distinguish the objects.
+     * @param clazz the expected type of the objects.
+     * @return map of each key to true when an object with matching key and clazz exists, false otherwise.
+     * @should return whether objects with matching keys and type exist.
+     */
+    <T> Map<String, Boolean> objectsExist(final Collection<String> keys, final Class<T> clazz) throws IOException;
+
+    /**
+     * Search for objects with matching <code>keys</code> and <code>resource</code> from the local repository. All keys
+     * are resolved in a single pass over the index, keys without matching object are not included in the returned
+     * map.
+     *
+     * @param keys     the keys to distinguish the objects.
+     * @param resource the resource object which will describe how to index the json resource to lucene.
+     * @return map of each key to the object with matching key and resource.
+     * @should return objects with matching keys.
+     */
+    Map<String, Searchable> getObjects(final Collection<String> keys, final Resource resource) throws IOException;
+
+    /**
+     * Check whether objects with matching <code>keys</code> and <code>resource</code> exist in the local repository.
+     * All keys are resolved in a single pass over the index.
+     *
+     * @param keys     the keys to distinguish the objects.
+     * @param resource the resource object which will describe how to index the json resource to lucene.
+     * @return map of each key to true when an object with matching key and resource exists, false otherwise.
+     * @should return whether objects with matching keys exist.
+     */
+    Map<String, Boolean> objectsExist(final Collection<String> keys, final Resource resource) throws IOException;
+
     /**
      * Search for objects with matching <code>filter</code> and <code>clazz</code> type from the local repository.
      * This method will return list of all matching object or empty list if no object match the search query.
@@ -144,6 +200,50 @@ public interface RestAssuredService {
     <T> List<T> getSortedObjects(final List<Filter> filters, final Class<T> clazz, final Resource resource,
                            final Integer page, final Integer pageSize) throws IOException;
 
+    /**
+     * Search for objects with matching <code>filter</code> and <code>clazz</code> type from the local repository.
+     * This method will return the page of objects following the position of the <code>cursor</code>. The returned
+     * page contains the cursor to retrieve the next page of the same query.
+     *
+     * @param filters  the search filter to limit the number of returned object.
+     * @param clazz    the expected return type of the object.
+     * @param cursor   the cursor returned with the previous page or null to retrieve the first page.
+     * @param pageSize the maximum number of objects in the page.
+     * @return page of objects with matching <code>query</code> and <code>clazz</code>.
+     * @should return all object matching the search query and class across pages.
+     * @should return null cursor on the last page.
+     * @should throw IOException when the cursor was created for a different query.
+     * @should resume the query after changes are committed.
+     * @should throw IOException when the segments of the cursor were merged.
+     */
+    <T> Page<T> getObjectsAfter(final List<Filter> filters, final Class<T> clazz,
+                                final Cursor cursor, final Integer pageSize) throws IOException;
+
+    /**
+     * Search for objects with matching <code>filter</code> and <code>clazz</code> type from the local repository.
+     * This method will return the page of objects sorted by the sortable fields of the <code>resource</code>
+     * following the position of the <code>cursor</code>.
+     *
+     * @param filters  the search filter to limit the number of returned object.
+     * @param clazz    the expected return type of the object.
+     * @param resource the resource descriptor used to register the object.
+     * @param cursor   the cursor returned with the previous page or null to retrieve the first page.
+     * @param pageSize the maximum number of objects in the page.
+     * @return page of objects with matching <code>query</code> and <code>clazz</code>.
+     * @should return results sorted by sortable fields defined in resource configuration list across pages
+     */
+    <T> Page<T> getSortedObjectsAfter(final List<Filter> filters, final Class<T> clazz, final Resource resource,
+                                      final Cursor cursor, final Integer pageSize) throws IOException;
+
+    /**
+     * Count the number of objects with matching <code>filter</code> and <code>clazz</code> from the local repository.
+     * The count is cached until the next change to the local repository.
+     *
+     * @param filters the search filter to limit the number of counted object.
+     * @param clazz   the expected type of the object.
+     * @return number of objects with matching <code>query</code> and <code>clazz</code>.
+     * @should return the number of object matching the search query regardless of the filter order
+     */
     <T> Integer countObjects(final List<Filter> filters, final Class<T> clazz) throws IOException;
 
     /**
@@ -155,6 +255,7 @@ public interface RestAssuredService {
      * @return list of all object with matching <code>query</code> and <code>resource</code> or empty list.
      * @should return all object matching the search query and resource.
      * @should return empty list when no object match the search query and resource.
+     * @should return all object matching the filters using the cached resource filter.
      */
     List<Searchable> getObjects(final List<Filter> filters, final Resource resource) throws IOException;
 
@@ -171,6 +272,18 @@ public interface RestAssuredService {
      */
     List<Searchable> getSortedObjects(final List<Filter> filters, final Resource resource) throws IOException;
 
+    /**
+     * Search for a page of objects with matching <code>filter</code> and <code>resource</code> type from the local
+     * repository. The ids of the matching objects are cached until the next change to the local repository.
+     *
+     * @param filters  the search filter to limit the number of returned object.
+     * @param resource the resource descriptor used to register the object.
+     * @param page     the page number.
+     * @param pageSize the maximum number of objects in the page.
+     * @return page of objects with matching <code>query</code> and <code>resource</code>.
+     * @should return cached results for the same filters regardless of the filter order.
+     * @should return pages in the same order as the unpaged objects.
+     */
     List<Searchable> getObjects(final List<Filter> filters, final Resource resource,
                                 final Integer page, final Integer pageSize) throws IOException;
 
@@ -188,6 +301,71 @@ public interface RestAssuredService {
     List<Searchable> getSortedObjects(final List<Filter> filters, final Resource resource,
                                 final Integer page, final Integer pageSize) throws IOException;
 
+    /**
+     * Search for objects with matching <code>filter</code> and <code>resource</code> type from the local repository.
+     * This method will return the page of objects following the position of the <code>cursor</code>. The returned
+     * page contains the cursor to retrieve the next page of the same query.
+     *
+     * @param filters  the search filter to limit the number of returned object.
+     * @param resource the resource descriptor used to register the object.
+     * @param cursor   the cursor returned with the previous page or null to retrieve the first page.
+     * @param pageSize the maximum number of objects in the page.
+     * @return page of objects with matching <code>query</code> and <code>resource</code>.
+     */
+    Page<Searchable> getObjectsAfter(final List<Filter> filters, final Resource resource,
+                                     final Cursor cursor, final Integer pageSize) throws IOException;
+
+    /**
+     * Search for objects with matching <code>filter</code> and <code>resource</code> type from the local repository.
+     * This method will return the page of objects sorted by the sortable fields of the <code>resource</code>
+     * following the position of the <code>cursor</code>.
+     *
+     * @param filters  the search filter to limit the number of returned object.
+     * @param resource the resource descriptor used to register the object.
+     * @param cursor   the cursor returned with the previous page or null to retrieve the first page.
+     * @param pageSize the maximum number of objects in the page.
+     * @return page of objects with matching <code>query</code> and <code>resource</code>.
+     * @should return results sorted by sortable fields defined in resource configuration list across pages
+     */
+    Page<Searchable> getSortedObjectsAfter(final List<Filter> filters, final Resource resource,
+                                           final Cursor cursor, final Integer pageSize) throws IOException;
+
+    /**
+     * Iterate over objects with matching <code>filter</code> and <code>clazz</code> type from the local repository.
+     * The objects are loaded and de-serialized one at a time while the caller walk the iterator. The caller must
+     * close the iterator when done with it.
+     *
+     * @param filters the search filter to limit the number of returned object.
+     * @param clazz   the expected return type of the object.
+     * @return iterator over all object with matching <code>query</code> and <code>clazz</code>.
+     * @should iterate over all object matching the search query and class.
+     * @should return the updated objects when the resource is cached.
+     */
+    <T> ResultIterator<T> iterateObjects(final List<Filter> filters, final Class<T> clazz) throws IOException;
+
+    /**
+     * Iterate over objects with matching <code>filter</code> and <code>resource</code> type from the local repository.
+     * The objects are loaded and de-serialized one at a time while the caller walk the iterator. The caller must
+     * close the iterator when done with it. The iterator keep returning the objects matching when it was created, even
+     * when the objects are changed while iterating.
+     *
+     * @param filters  the search filter to limit the number of returned object.
+     * @param resource the resource descriptor used to register the object.
+     * @return iterator over all object with matching <code>query</code> and <code>resource</code>.
+     * @should iterate over all object matching the search query and resource.
+     * @should iterate over the objects matching when the iterator was created.
+     */
+    ResultIterator<Searchable> iterateObjects(final List<Filter> filters, final Resource resource) throws IOException;
+
+    /**
+     * Count the number of objects with matching <code>filter</code> and <code>resource</code> from the local
+     * repository. The count is cached until the next change to the local repository.
+     *
+     * @param filters  the search filter to limit the number of counted object.
+     * @param resource the resource descriptor used to register the object.
+     * @return number of objects with matching <code>query</code> and <code>resource</code>.
+     * @should return updated count after objects are removed
+     */
     Integer countObjects(final List<Filter> filters, final Resource resource) throws IOException;
 
     /**
@@ -221,6 +399,54 @@ public interface RestAssuredService {
     List<Searchable> getObjects(final String searchString, final Resource resource,
                                 final Integer page, final Integer pageSize) throws ParseException, IOException;
 
+    /**
+     * Search for objects with matching <code>searchString</code> and <code>clazz</code> type from the local repository.
+     * This method will return the page of objects following the position of the <code>cursor</code>.
+     *
+     * @param searchString the search string to limit the number of returned object.
+     * @param clazz        the expected return type of the object.
+     * @param cursor       the cursor returned with the previous page or null to retrieve the first page.
+     * @param pageSize     the maximum number of objects in the page.
+     * @return page of objects with matching <code>searchString</code> and <code>clazz</code>.
+     */
+    <T> Page<T> getObjectsAfter(final String searchString, final Class<T> clazz,
+                                final Cursor cursor, final Integer pageSize) throws ParseException, IOException;
+
+    /**
+     * Search for objects with matching <code>searchString</code> and <code>resource</code> type from the local
+     * repository. This method will return the page of objects following the position of the <code>cursor</code>.
+     *
+     * @param searchString the search string to limit the number of returned object.
+     * @param resource     the resource descriptor used to register the object.
+     * @param cursor       the cursor returned with the previous page or null to retrieve the first page.
+     * @param pageSize     the maximum number of objects in the page.
+     * @return page of objects with matching <code>searchString</code> and <code>resource</code>.
+     */
+    Page<Searchable> getObjectsAfter(final String searchString, final Resource resource,
+                                     final Cursor cursor, final Integer pageSize) throws ParseException, IOException;
+
+    /**
+     * Iterate over objects with matching <code>searchString</code> and <code>clazz</code> type from the local
+     * repository. The caller must close the iterator when done with it.
+     *
+     * @param searchString the search string to limit the number of returned object.
+     * @param clazz        the expected return type of the object.
+     * @return iterator over all object with matching <code>searchString</code> and <code>clazz</code>.
+     */
+    <T> ResultIterator<T> iterateObjects(final String searchString, final Class<T> clazz)
+            throws ParseException, IOException;
+
+    /**
+     * Iterate over objects with matching <code>searchString</code> and <code>resource</code> type from the local
+     * repository. The caller must close the iterator when done with it.
+     *
+     * @param searchString the search string to limit the number of returned object.
+     * @param resource     the resource descriptor used to register the object.
+     * @return iterator over all object with matching <code>searchString</code> and <code>resource</code>.
+     */
+    ResultIterator<Searchable> iterateObjects(final String searchString, final Resource resource)
+            throws ParseException, IOException;
+
     /**
      * Remove objects based on the resource from the local repository. The method will determine if there's unique
      * <code>object</code> in the local repository and then remove it.
@@ -235,6 +461,19 @@ public interface RestAssuredService {
      */
     void deleteObjects(final List<Searchable> objects, final Resource resource) throws IOException;
 
+    /**
+     * Remove objects with the <code>keys</code> based on the resource from the local repository. The keys are matched
+     * against the default key field, the same way as <code>getObjects(Collection, Resource)</code>.
+     * <p/>
+     * When the default key field is the only unique searchable field of the resource, the objects are removed using
+     * their primary key term, without searching the local repository for each object.
+     *
+     * @param keys     the keys of the objects to be removed.
+     * @param resource the resource object which will describe how to index the json resource to lucene.
+     * @should remove all objects with the keys from the internal index system.
+     */
+    void deleteObjects(final Collection<String> keys, final Resource resource) throws IOException;
+
     /**
      * Create instances of objects in the local repository.
      * <p/>
@@ -245,10 +484,13 @@ public interface RestAssuredService {
      * <pre>
      * _class : the expected representation of the json when serialized
      * _resource : the resource configuration used to convert the json to lucene
+     * _key : the resource name and the values of the unique fields, when the resource define unique fields
      * </pre>
      *
      * @param objects  the objects to be created
      * @param resource the resource object which will describe how to index the json resource to lucene.
+     * @should not create duplicate objects with the same key.
+     * @should make the objects visible to the queries before they are committed in near real time mode.
      */
     void createObjects(final List<Searchable> objects, Resource resource) throws IOException;
 
@@ -261,9 +503,87 @@ public interface RestAssuredService {
      *
      * @param objects  the objects to be updated
      * @param resource the resource object which will describe how to index the json resource to lucene.
+     * @should commit the changes of concurrent writers.
+     * @should not duplicate the objects of a resource without unique field.
      */
     void updateObjects(final List<Searchable> objects, Resource resource) throws IOException;
 
+    /**
+     * Import a large list of objects into the local repository. The objects are serialized and converted to lucene
+     * documents by multiple worker threads, which write the documents to the index concurrently. Objects which already
+     * exist in the local repository are replaced with the imported objects. When an object fails, none of the objects
+     * are imported.
+     * <p/>
+     * The number of worker threads and the size of the queue feeding them can be configured using the
+     * <code>configuration.lucene.import.threads</code> and <code>configuration.lucene.import.queue</code> settings.
+     *
+     * @param objects  the objects to be imported
+     * @param resource the resource object which will describe how to index the json resource to lucene.
+     * @should import all objects into the local repository.
+     * @should discard the imported objects when an object fails.
+     */
+    void importObjects(final List<Searchable> objects, Resource resource) throws IOException;
+
+    /**
+     * Write the creates, updates and deletes of the batch to the local repository as a single transaction. The
+     * operations are applied in the order they were added to the batch and committed once at the end, after which the
+     * index searcher is reopened once.
+     * <p/>
+     * When any operation of the batch fails, all changes of the batch are rolled back and the local repository is
+     * left in the state before the batch was written.
+     *
+     * @param batch the operations to be written.
+     * @should commit all operations of the batch.
+     * @should roll back all operations of the batch when an operation fails.
+     * @should create the objects deleted earlier in the batch.
+     */
+    void writeObjects(final WriteBatch batch) throws IOException;
+
+    /**
+     * Remove objects from the local repository in the background. The objects are added to the write queue and the
+     * method return without waiting for the removal to be committed.
+     *
+     * @param objects  the objects to be removed if the objects exist.
+     * @param resource the resource object which will describe how to index the json resource to lucene.
+     * @return the future which completes once the removal is committed.
+     * @should remove the objects in the background.
+     * @see #createObjectsAsync(java.util.List, com.muzima.search.api.resource.Resource)
+     */
+    Future<Void> deleteObjectsAsync(final List<Searchable> objects, final Resource resource) throws IOException;
+
+    /**
+     * Create instances of objects in the local repository in the background. The objects are added to a bounded write
+     * queue and the method return without waiting for the objects to be committed. When the write queue is full, this
+     * method will block until the queued changes catch up.
+     * <p/>
+     * The queued changes are committed according to the <code>configuration.lucene.async.durability</code> setting:
+     * <pre>
+     * batch : commit after every call (default)
+     * documents : commit every <code>configuration.lucene.async.documents</code> changed objects
+     * time : commit every <code>configuration.lucene.async.interval</code> milliseconds
+     * </pre>
+     * The size of the write queue can be configured using the <code>configuration.lucene.async.queue</code> setting.
+     * Calling {@link #flush()} will wait until all queued changes are committed.
+     *
+     * @param objects  the objects to be created
+     * @param resource the resource object which will describe how to index the json resource to lucene.
+     * @return the future which completes once the objects are committed.
+     * @should create the objects in the background.
+     */
+    Future<Void> createObjectsAsync(final List<Searchable> objects, final Resource resource) throws IOException;
+
+    /**
+     * Update instances of objects in the local repository in the background. The objects are added to the write queue
+     * and the method return without waiting for the changes to be committed.
+     *
+     * @param objects  the objects to be updated
+     * @param resource the resource object which will describe how to index the json resource to lucene.
+     * @return the future which completes once the changes are committed.
+     * @should update the objects in the background.
+     * @see #createObjectsAsync(java.util.List, com.muzima.search.api.resource.Resource)
+     */
+    Future<Void> updateObjectsAsync(final List<Searchable> objects, final Resource resource) throws IOException;
+
     /**
      * Remove objects with matching <code>filter</code> and <code>clazz</code> type from the local repository.
      * This method will return list of all matching object or empty list if no object match the search query.
@@ -273,4 +593,45 @@ public interface RestAssuredService {
      * @should remove all objects matching the search filter and class from the internal index system.
      */
     <T> void deleteObjects(final List<Filter> filters, final Class<T> clazz) throws IOException;
+
+    /**
+     * Commit all pending changes to the local repository right away, without waiting for the commit delay. This
+     * method will also wait until all changes queued by the asynchronous methods are committed.
+     * <p/>
+     * In near real time mode, the changes are visible to the queries before they are committed, and are lost when
+     * the process crashes before the delayed commit. Call this method to make them durable.
+     *
+     * @should wait for all queued changes to be committed.
+     * @should make all committed changes visible to the queries.
+     * @should make the near real time changes durable.
+     */
+    void flush() throws IOException;
+
+    /**
+     * Set the maximum staleness tolerated by the following queries of the calling thread. When the searcher is
+     * refreshed in the background (<code>configuration.lucene.refresh.interval</code>), a query may not see the
+     * changes committed during the last refresh interval. A query which can't tolerate the staleness of the searcher
+     * refresh the searcher before searching, a maximum staleness of 0 always see the committed changes.
+     * <p/>
+     * The default maximum staleness can be configured using the <code>configuration.lucene.refresh.staleness</code>
+     * setting and default to the refresh interval. Without the background refresh, the searcher is refreshed by every
+     * commit and is never stale.
+     * <p/>
+     * The maximum staleness is bound to the calling thread and stays in effect for every later query of the thread
+     * until it's reset using null. Callers running on pooled threads must reset it in a finally block, otherwise the
+     * maximum staleness leaks into unrelated work executed later on the same thread.
+     *
+     * @param maxStaleness the maximum staleness in milliseconds, or null to use the configured maximum staleness.
+     * @should make the queries of the calling thread see the committed changes.
+     */
+    void setMaxStaleness(final Long maxStaleness);
+
+    /**
+     * Commit all pending changes and release the resources held by the local repository. The local repository is
+     * reopened on the next call to the service, except for the asynchronous changes which are rejected once the
+     * service is closed.
+     *
+     * @should commit the queued changes and reject asynchronous changes submitted after closing.
+     */
+    void close() throws IOException;
 }
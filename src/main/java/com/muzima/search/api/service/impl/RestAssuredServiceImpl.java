@@ -15,8 +15,12 @@ import com.jayway.jsonpath.JsonPath;
 import com.muzima.search.api.filter.Filter;
 import com.muzima.search.api.internal.lucene.Indexer;
 import com.muzima.search.api.model.object.Searchable;
+import com.muzima.search.api.model.object.WriteBatch;
 import com.muzima.search.api.model.resolver.Resolver;
 import com.muzima.search.api.resource.Resource;
+import com.muzima.search.api.result.Cursor;
+import com.muzima.search.api.result.Page;
+import com.muzima.search.api.result.ResultIterator;
 import com.muzima.search.api.service.RestAssuredService;
 import com.muzima.search.api.util.CollectionUtil;
 import com.muzima.search.api.util.FilenameUtil;
@@ -35,9 +39,11 @@ import java.net.HttpURLConnection;
 import java.net.Proxy;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Future;
 import java.util.zip.GZIPInputStream;
 
 public class RestAssuredServiceImpl implements RestAssuredService {
@@ -198,6 +204,49 @@ public class RestAssuredServiceImpl implements RestAssuredService {
         return indexer.objectExists(key, resource);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @see RestAssuredService#getObjects(java.util.Collection, Class)
+     */
+    @Override
+    public <T> Map<String, T> getObjects(final Collection<String> keys, final Class<T> clazz) throws IOException {
+        return indexer.getObjects(keys, clazz);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see RestAssuredService#objectsExist(java.util.Collection, Class)
+     */
+    @Override
+    public <T> Map<String, Boolean> objectsExist(final Collection<String> keys, final Class<T> clazz)
+            throws IOException {
+        return indexer.objectsExist(keys, clazz);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see RestAssuredService#getObjects(java.util.Collection, com.muzima.search.api.resource.Resource)
+     */
+    @Override
+    public Map<String, Searchable> getObjects(final Collection<String> keys, final Resource resource)
+            throws IOException {
+        return indexer.getObjects(keys, resource);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see RestAssuredService#objectsExist(java.util.Collection, com.muzima.search.api.resource.Resource)
+     */
+    @Override
+    public Map<String, Boolean> objectsExist(final Collection<String> keys, final Resource resource)
+            throws IOException {
+        return indexer.objectsExist(keys, resource);
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -224,6 +273,23 @@ public class RestAssuredServiceImpl implements RestAssuredService {
         return indexer.getSortedObjects(filters, clazz, resource, page, pageSize);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @see RestAssuredService#getObjectsAfter(java.util.List, Class, com.muzima.search.api.result.Cursor, Integer)
+     */
+    @Override
+    public <T> Page<T> getObjectsAfter(final List<Filter> filters, final Class<T> clazz,
+                                       final Cursor cursor, final Integer pageSize) throws IOException {
+        return indexer.getObjectsAfter(filters, clazz, cursor, pageSize);
+    }
+
+    @Override
+    public <T> Page<T> getSortedObjectsAfter(final List<Filter> filters, final Class<T> clazz, final Resource resource,
+                                             final Cursor cursor, final Integer pageSize) throws IOException {
+        return indexer.getSortedObjectsAfter(filters, clazz, resource, cursor, pageSize);
+    }
+
     @Override
     public <T> Integer countObjects(final List<Filter> filters, final Class<T> clazz) throws IOException {
         return indexer.countObjects(filters, clazz);
@@ -256,6 +322,39 @@ public class RestAssuredServiceImpl implements RestAssuredService {
         return indexer.getSortedObjects(filters, resource, page, pageSize);
     }
 
+    @Override
+    public Page<Searchable> getObjectsAfter(final List<Filter> filters, final Resource resource,
+                                            final Cursor cursor, final Integer pageSize) throws IOException {
+        return indexer.getObjectsAfter(filters, resource, cursor, pageSize);
+    }
+
+    @Override
+    public Page<Searchable> getSortedObjectsAfter(final List<Filter> filters, final Resource resource,
+                                                  final Cursor cursor, final Integer pageSize) throws IOException {
+        return indexer.getSortedObjectsAfter(filters, resource, cursor, pageSize);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see RestAssuredService#iterateObjects(java.util.List, Class)
+     */
+    @Override
+    public <T> ResultIterator<T> iterateObjects(final List<Filter> filters, final Class<T> clazz) throws IOException {
+        return indexer.iterateObjects(filters, clazz);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see RestAssuredService#iterateObjects(java.util.List, com.muzima.search.api.resource.Resource)
+     */
+    @Override
+    public ResultIterator<Searchable> iterateObjects(final List<Filter> filters, final Resource resource)
+            throws IOException {
+        return indexer.iterateObjects(filters, resource);
+    }
+
     @Override
     public Integer countObjects(final List<Filter> filters, final Resource resource) throws IOException {
         return indexer.countObjects(filters, resource);
@@ -294,6 +393,31 @@ public class RestAssuredServiceImpl implements RestAssuredService {
         return indexer.getObjects(searchString, resource, page, pageSize);
     }
 
+    @Override
+    public <T> Page<T> getObjectsAfter(final String searchString, final Class<T> clazz,
+                                       final Cursor cursor, final Integer pageSize) throws ParseException, IOException {
+        return indexer.getObjectsAfter(searchString, clazz, cursor, pageSize);
+    }
+
+    @Override
+    public Page<Searchable> getObjectsAfter(final String searchString, final Resource resource,
+                                            final Cursor cursor, final Integer pageSize)
+            throws ParseException, IOException {
+        return indexer.getObjectsAfter(searchString, resource, cursor, pageSize);
+    }
+
+    @Override
+    public <T> ResultIterator<T> iterateObjects(final String searchString, final Class<T> clazz)
+            throws ParseException, IOException {
+        return indexer.iterateObjects(searchString, clazz);
+    }
+
+    @Override
+    public ResultIterator<Searchable> iterateObjects(final String searchString, final Resource resource)
+            throws ParseException, IOException {
+        return indexer.iterateObjects(searchString, resource);
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -304,6 +428,16 @@ public class RestAssuredServiceImpl implements RestAssuredService {
         indexer.deleteObjects(objects, resource);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @see RestAssuredService#deleteObjects(java.util.Collection, com.muzima.search.api.resource.Resource)
+     */
+    @Override
+    public void deleteObjects(final Collection<String> keys, final Resource resource) throws IOException {
+        indexer.deleteObjects(keys, resource);
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -324,6 +458,56 @@ public class RestAssuredServiceImpl implements RestAssuredService {
         indexer.updateObjects(objects, resource);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @see RestAssuredService#importObjects(java.util.List, com.muzima.search.api.resource.Resource)
+     */
+    @Override
+    public void importObjects(final List<Searchable> objects, final Resource resource) throws IOException {
+        indexer.importObjects(objects, resource);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see RestAssuredService#writeObjects(com.muzima.search.api.model.object.WriteBatch)
+     */
+    @Override
+    public void writeObjects(final WriteBatch batch) throws IOException {
+        indexer.writeObjects(batch);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see RestAssuredService#deleteObjectsAsync(java.util.List, com.muzima.search.api.resource.Resource)
+     */
+    @Override
+    public Future<Void> deleteObjectsAsync(final List<Searchable> objects, final Resource resource) throws IOException {
+        return indexer.deleteObjectsAsync(objects, resource);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see RestAssuredService#createObjectsAsync(java.util.List, com.muzima.search.api.resource.Resource)
+     */
+    @Override
+    public Future<Void> createObjectsAsync(final List<Searchable> objects, final Resource resource) throws IOException {
+        return indexer.createObjectsAsync(objects, resource);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see RestAssuredService#updateObjectsAsync(java.util.List, com.muzima.search.api.resource.Resource)
+     */
+    @Override
+    public Future<Void> updateObjectsAsync(final List<Searchable> objects, final Resource resource) throws IOException {
+        return indexer.updateObjectsAsync(objects, resource);
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -334,5 +518,33 @@ public class RestAssuredServiceImpl implements RestAssuredService {
         indexer.deleteObjects(filters,clazz);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @see RestAssuredService#flush()
+     */
+    @Override
+    public void flush() throws IOException {
+        indexer.flush();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see RestAssuredService#setMaxStaleness(Long)
+     */
+    @Override
+    public void setMaxStaleness(final Long maxStaleness) {
+        indexer.setMaxStaleness(maxStaleness);
+    }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @see RestAssuredService#close()
+     */
+    @Override
+    public void close() throws IOException {
+        indexer.close();
+    }
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2014. The Trustees of Indiana University.
+ *
+ * This version of the code is licensed under the MPL 2.0 Open Source license with additional
+ * healthcare disclaimer. If the user is an entity intending to commercialize any application
+ * that uses this code in a for-profit venture, please contact the copyright holder.
+ */
+
+package com.muzima.search.api;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.name.Names;
+import com.muzima.search.api.filter.Filter;
+import com.muzima.search.api.filter.FilterFactory;
+import com.muzima.search.api.internal.provider.DirectoryProvider;
+import com.muzima.search.api.module.JUnitModule;
+import com.muzima.search.api.module.SearchModule;
+import com.muzima.search.api.sample.domain.Patient;
+import com.muzima.search.api.service.RestAssuredService;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.store.Directory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Run the service tests with the near real time mode enabled. The commit delay is long enough for the changes of a
+ * test to stay uncommitted until they are flushed.
+ */
+public class NearRealTimeRestAssuredServiceTest extends RestAssuredServiceTest {
+
+    @Override
+    protected Injector createInjector() {
+        return Guice.createInjector(new SearchModule(), new JUnitModule(), new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(Boolean.class)
+                        .annotatedWith(Names.named("configuration.lucene.nrt"))
+                        .toInstance(Boolean.TRUE);
+                bind(Long.class)
+                        .annotatedWith(Names.named("configuration.lucene.nrt.commit"))
+                        .toInstance(60000L);
+            }
+        });
+    }
+
+    /**
+     * @verifies make the objects visible to the queries before they are committed in near real time mode
+     * @see RestAssuredService#createObjects(java.util.List, com.muzima.search.api.resource.Resource)
+     */
+    @Test
+    public void createObjects_shouldMakeTheObjectsVisibleToTheQueriesBeforeTheyAreCommittedInNearRealTimeMode()
+            throws Exception {
+        List<Patient> patients = service.getObjects(Collections.<Filter>emptyList(), Patient.class);
+        Assert.assertEquals(3, patients.size());
+        Assert.assertEquals(0, countCommittedDocuments());
+    }
+
+    /**
+     * @verifies make the near real time changes durable
+     * @see RestAssuredService#flush()
+     */
+    @Test
+    public void flush_shouldMakeTheNearRealTimeChangesDurable() throws Exception {
+        service.flush();
+        Assert.assertEquals(3, countCommittedDocuments());
+
+        Patient patient = service.getObjects(Collections.<Filter>emptyList(), Patient.class).get(0);
+        Filter filter = FilterFactory.createFilter("uuid", patient.getUuid());
+        service.deleteObjects(Arrays.asList(filter), Patient.class);
+        Assert.assertNull(service.getObject(patient.getUuid(), Patient.class));
+        Assert.assertEquals(3, countCommittedDocuments());
+
+        service.flush();
+        Assert.assertEquals(2, countCommittedDocuments());
+    }
+
+    private int countCommittedDocuments() throws IOException {
+        Directory directory = injector.getInstance(DirectoryProvider.class).get();
+        if (!IndexReader.indexExists(directory)) {
+            return 0;
+        }
+        IndexReader reader = IndexReader.open(directory);
+        try {
+            return reader.numDocs();
+        } finally {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2014. The Trustees of Indiana University.
+ *
+ * This version of the code is licensed under the MPL 2.0 Open Source license with additional
+ * healthcare disclaimer. If the user is an entity intending to commercialize any application
+ * that uses this code in a for-profit venture, please contact the copyright holder.
+ */
+
+package com.muzima.search.api;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.name.Names;
+import com.muzima.search.api.filter.Filter;
+import com.muzima.search.api.filter.FilterFactory;
+import com.muzima.search.api.internal.cache.FilterCache;
+import com.muzima.search.api.internal.provider.DirectoryProvider;
+import com.muzima.search.api.module.JUnitModule;
+import com.muzima.search.api.module.SearchModule;
+import com.muzima.search.api.resource.Resource;
+import com.muzima.search.api.sample.domain.Patient;
+import com.muzima.search.api.service.RestAssuredService;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Run the service tests with the index partitioned by resource.
+ */
+public class PartitionedRestAssuredServiceTest extends RestAssuredServiceTest {
+
+    @Override
+    protected Injector createInjector() {
+        return Guice.createInjector(new SearchModule(), new JUnitModule(), new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(Boolean.class)
+                        .annotatedWith(Names.named("configuration.lucene.partitioned"))
+                        .toInstance(Boolean.TRUE);
+            }
+        });
+    }
+
+    @Override
+    protected List<String> getPartitions() {
+        return Arrays.asList(PATIENT_RESOURCE);
+    }
+
+    /**
+     * A partition only holds the documents of its resource, so the query doesn't need the cached resource filter.
+     *
+     * @verifies return all object matching the filters using the cached resource filter
+     * @see RestAssuredService#getObjects(java.util.List, com.muzima.search.api.resource.Resource)
+     */
+    @Override
+    @Test
+    public void getObjects_shouldReturnAllObjectMatchingTheFiltersUsingTheCachedResourceFilter() throws Exception {
+        Resource resource = context.getResource(PATIENT_RESOURCE);
+        List<Filter> filters = Arrays.asList(FilterFactory.createFilter("givenName", "T*"));
+
+        List<Patient> patients = service.getObjects(filters, Patient.class);
+        Assert.assertEquals(3, service.getObjects(filters, resource).size());
+        Assert.assertEquals(0, injector.getInstance(FilterCache.class).getMemoryUsage());
+
+        String uuid = patients.get(0).getUuid();
+        service.deleteObjects(Arrays.asList(FilterFactory.createFilter("uuid", uuid)), Patient.class);
+        Assert.assertEquals(2, service.getObjects(filters, resource).size());
+    }
+
+    /**
+     * @verifies store the partitions whose names differ only by unsafe characters or case in different directories
+     * @see DirectoryProvider#get(String)
+     */
+    @Test
+    public void get_shouldStoreThePartitionsWhoseNamesDifferOnlyByUnsafeCharactersOrCaseInDifferentDirectories()
+            throws Exception {
+        DirectoryProvider directoryProvider = injector.getInstance(DirectoryProvider.class);
+        directoryProvider.get("Observation Resource").createOutput("marker").close();
+
+        Assert.assertTrue(directoryProvider.get("Observation Resource").fileExists("marker"));
+        Assert.assertFalse(directoryProvider.get("Observation/Resource").fileExists("marker"));
+        Assert.assertFalse(directoryProvider.get("observation resource").fileExists("marker"));
+    }
+}
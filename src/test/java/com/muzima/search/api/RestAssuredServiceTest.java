@@ -14,7 +14,15 @@ import com.jayway.jsonpath.JsonPath;
 import com.muzima.search.api.context.ServiceContext;
 import com.muzima.search.api.filter.Filter;
 import com.muzima.search.api.filter.FilterFactory;
+import com.muzima.search.api.internal.cache.FilterCache;
+import com.muzima.search.api.internal.cache.ObjectCache;
+import com.muzima.search.api.internal.cache.ResultCache;
+import com.muzima.search.api.internal.lucene.GroupCommitter;
+import com.muzima.search.api.internal.lucene.IndexMaintainer;
+import com.muzima.search.api.internal.lucene.SearcherRefresher;
+import com.muzima.search.api.internal.provider.DirectoryProvider;
 import com.muzima.search.api.model.object.Searchable;
+import com.muzima.search.api.model.object.WriteBatch;
 import com.muzima.search.api.model.resolver.Resolver;
 import com.muzima.search.api.model.serialization.Algorithm;
 import com.muzima.search.api.module.JUnitModule;
@@ -22,11 +30,16 @@ import com.muzima.search.api.module.SearchModule;
 import com.muzima.search.api.resource.ObjectResource;
 import com.muzima.search.api.resource.Resource;
 import com.muzima.search.api.resource.ResourceConstants;
+import com.muzima.search.api.result.Cursor;
+import com.muzima.search.api.result.Page;
+import com.muzima.search.api.result.ResultIterator;
 import com.muzima.search.api.sample.domain.Patient;
 import com.muzima.search.api.service.RestAssuredService;
 import com.muzima.search.api.util.StreamUtil;
 import com.muzima.search.api.util.StringUtil;
+import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.search.SortField;
+import org.apache.lucene.store.Directory;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -43,15 +56,20 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Future;
 
 public class RestAssuredServiceTest {
 
-    private ServiceContext context;
+    protected Injector injector;
 
-    private RestAssuredService service;
+    protected ServiceContext context;
+
+    protected RestAssuredService service;
 
     private static String patientGivenName;
 
@@ -61,7 +79,7 @@ public class RestAssuredServiceTest {
 
     private static final String CORPUS_DIRECTORY = "sample/corpus";
 
-    private static final String PATIENT_RESOURCE = "Patient Resource";
+    protected static final String PATIENT_RESOURCE = "Patient Resource";
 
     private static final String SEARCH_PATIENT_RESOURCE = "Search Patient Resource";
 
@@ -143,9 +161,23 @@ public class RestAssuredServiceTest {
         }
     }
 
+    /**
+     * Create the injector of the service under test. Override to run the tests with another configuration.
+     */
+    protected Injector createInjector() {
+        return Guice.createInjector(new SearchModule(), new JUnitModule());
+    }
+
+    /**
+     * Get the partitions storing the patients, each partition being stored in its own directory.
+     */
+    protected List<String> getPartitions() {
+        return Arrays.asList(StringUtil.EMPTY);
+    }
+
     @Before
     public void prepare() throws Exception {
-        Injector injector = Guice.createInjector(new SearchModule(), new JUnitModule());
+        injector = createInjector();
 
         service = injector.getInstance(RestAssuredService.class);
         Assert.assertNotNull(service);
@@ -161,13 +193,21 @@ public class RestAssuredServiceTest {
     }
 
     @After
-    public void cleanUp() {
+    public void cleanUp() throws Exception {
+        service.close();
+
         String tmpDirectory = System.getProperty("java.io.tmpdir");
         String lucenePath = tmpDirectory + JUnitModule.LUCENE_DIRECTORY;
 
-        File luceneDirectory = new File(lucenePath);
-        for (String filename : luceneDirectory.list()) {
-            File file = new File(luceneDirectory, filename);
+        delete(new File(lucenePath));
+    }
+
+    private void delete(final File directory) {
+        for (String filename : directory.list()) {
+            File file = new File(directory, filename);
+            if (file.isDirectory()) {
+                delete(file);
+            }
             Assert.assertTrue(file.delete());
         }
     }
@@ -225,6 +265,107 @@ public class RestAssuredServiceTest {
         Assert.assertEquals(patientUuid, patient.getUuid());
     }
 
+    /**
+     * @verifies return cached object until the object is updated
+     * @see RestAssuredService#getObject(String, Class)
+     */
+    @Test
+    public void getObject_shouldReturnCachedObjectUntilTheObjectIsUpdated() throws Exception {
+        ObjectCache objectCache = injector.getInstance(ObjectCache.class);
+        objectCache.setMaximumSize(16);
+        objectCache.setResources(PATIENT_RESOURCE);
+
+        Patient patient = service.getObject(patientUuid, Patient.class);
+        Assert.assertSame(patient, service.getObject(patientUuid, Patient.class));
+
+        Resource resource = context.getResource(PATIENT_RESOURCE);
+        service.updateObjects(Arrays.<Searchable>asList(patient), resource);
+        Patient updatedPatient = service.getObject(patientUuid, Patient.class);
+        Assert.assertNotSame(patient, updatedPatient);
+        Assert.assertEquals(patientUuid, updatedPatient.getUuid());
+    }
+
+    /**
+     * @verifies return a new object on every call when the resource is not cached
+     * @see RestAssuredService#getObject(String, Class)
+     */
+    @Test
+    public void getObject_shouldReturnANewObjectOnEveryCallWhenTheResourceIsNotCached() throws Exception {
+        injector.getInstance(ObjectCache.class).setMaximumSize(16);
+
+        Patient patient = service.getObject(patientUuid, Patient.class);
+        Assert.assertNotSame(patient, service.getObject(patientUuid, Patient.class));
+        Assert.assertEquals(patientUuid, service.getObject(patientUuid, Patient.class).getUuid());
+    }
+
+    /**
+     * @verifies return the updated objects when the resource is cached
+     * @see RestAssuredService#getObjects(java.util.Collection, Class)
+     */
+    @Test
+    public void getObjects_shouldReturnTheUpdatedObjectsWhenTheResourceIsCached() throws Exception {
+        ObjectCache objectCache = injector.getInstance(ObjectCache.class);
+        objectCache.setMaximumSize(16);
+        objectCache.setResources(PATIENT_RESOURCE);
+
+        List<String> keys = Arrays.asList(patientUuid);
+        Patient patient = service.getObjects(keys, Patient.class).get(patientUuid);
+        Assert.assertSame(patient, service.getObjects(keys, Patient.class).get(patientUuid));
+
+        updateGivenName(patient, "Updatarius");
+        Assert.assertEquals("Updatarius", service.getObjects(keys, Patient.class).get(patientUuid).getGivenName());
+        Resource resource = context.getResource(PATIENT_RESOURCE);
+        Patient updatedPatient = (Patient) service.getObjects(keys, resource).get(patientUuid);
+        Assert.assertEquals("Updatarius", updatedPatient.getGivenName());
+    }
+
+    /**
+     * Update the given name of a copy of the patient, leaving the cached patient untouched.
+     */
+    private void updateGivenName(final Patient patient, final String givenName) throws IOException {
+        Resource resource = context.getResource(PATIENT_RESOURCE);
+        Patient copy = (Patient) resource.deserialize(resource.serialize(patient));
+        copy.setGivenName(givenName);
+        service.updateObjects(Arrays.<Searchable>asList(copy), resource);
+    }
+
+    /**
+     * @verifies return objects with matching keys and type
+     * @see RestAssuredService#getObjects(java.util.Collection, Class)
+     */
+    @Test
+    public void getObjects_shouldReturnObjectsWithMatchingKeysAndType() throws Exception {
+        String randomUuid = UUID.randomUUID().toString();
+        Map<String, Patient> patients = service.getObjects(Arrays.asList(patientUuid, randomUuid), Patient.class);
+        Assert.assertEquals(1, patients.size());
+        Assert.assertEquals(patientUuid, patients.get(patientUuid).getUuid());
+        Assert.assertFalse(patients.containsKey(randomUuid));
+    }
+
+    /**
+     * @verifies return whether objects with matching keys exist
+     * @see RestAssuredService#objectsExist(java.util.Collection, com.muzima.search.api.resource.Resource)
+     */
+    @Test
+    public void objectsExist_shouldReturnWhetherObjectsWithMatchingKeysExist() throws Exception {
+        Resource resource = context.getResource(PATIENT_RESOURCE);
+        List<Patient> patients = service.getObjects(Collections.<Filter>emptyList(), Patient.class);
+        List<String> keys = new ArrayList<String>();
+        for (Patient patient : patients) {
+            keys.add(patient.getUuid());
+        }
+        String randomUuid = UUID.randomUUID().toString();
+        keys.add(randomUuid);
+
+        Map<String, Boolean> exists = service.objectsExist(keys, resource);
+        Assert.assertEquals(keys.size(), exists.size());
+        for (Patient patient : patients) {
+            Assert.assertTrue(exists.get(patient.getUuid()));
+        }
+        Assert.assertFalse(exists.get(randomUuid));
+        Assert.assertEquals(patients.size(), service.getObjects(keys, resource).size());
+    }
+
     /**
      * @verifies return null when no object match the key and type
      * @see RestAssuredService#getObject(String, Class)
@@ -381,6 +522,676 @@ public class RestAssuredServiceTest {
         Assert.assertEquals(sortList,patients);
     }
 
+    /**
+     * @verifies return all object matching the search query and class across pages
+     * @see RestAssuredService#getObjectsAfter(java.util.List, Class, com.muzima.search.api.result.Cursor, Integer)
+     */
+    @Test
+    public void getObjectsAfter_shouldReturnAllObjectMatchingTheSearchQueryAndClassAcrossPages() throws Exception {
+        List<Filter> filters = Arrays.asList(FilterFactory.createFilter("givenName", "T*"));
+
+        Page<Patient> page = service.getObjectsAfter(filters, Patient.class, null, 2);
+        Assert.assertEquals(3, page.getTotalHits());
+        Assert.assertEquals(2, page.getObjects().size());
+        Assert.assertTrue(page.hasNext());
+
+        List<Patient> patients = new ArrayList<Patient>(page.getObjects());
+        page = service.getObjectsAfter(filters, Patient.class, page.getCursor(), 2);
+        Assert.assertEquals(1, page.getObjects().size());
+        patients.addAll(page.getObjects());
+
+        Set<String> uuids = new HashSet<String>();
+        for (Patient patient : patients) {
+            uuids.add(patient.getUuid());
+        }
+        Assert.assertEquals(3, uuids.size());
+    }
+
+    /**
+     * @verifies return null cursor on the last page
+     * @see RestAssuredService#getObjectsAfter(java.util.List, Class, com.muzima.search.api.result.Cursor, Integer)
+     */
+    @Test
+    public void getObjectsAfter_shouldReturnNullCursorOnTheLastPage() throws Exception {
+        List<Filter> filters = Arrays.asList(FilterFactory.createFilter("givenName", "T*"));
+        Page<Patient> page = service.getObjectsAfter(filters, Patient.class, null, 3);
+        Assert.assertEquals(3, page.getObjects().size());
+        Assert.assertNull(page.getCursor());
+        Assert.assertFalse(page.hasNext());
+    }
+
+    /**
+     * @verifies throw IOException when the cursor was created for a different query
+     * @see RestAssuredService#getObjectsAfter(java.util.List, Class, com.muzima.search.api.result.Cursor, Integer)
+     */
+    @Test(expected = IOException.class)
+    public void getObjectsAfter_shouldThrowIOExceptionWhenTheCursorWasCreatedForADifferentQuery() throws Exception {
+        List<Filter> filters = Arrays.asList(FilterFactory.createFilter("givenName", "T*"));
+        Cursor cursor = service.getObjectsAfter(filters, Patient.class, null, 1).getCursor();
+        Assert.assertNotNull(cursor);
+
+        List<Filter> otherFilters = Arrays.asList(FilterFactory.createFilter("familyName", "*"));
+        service.getObjectsAfter(otherFilters, Patient.class, cursor, 1);
+    }
+
+    /**
+     * @verifies resume the query after changes are committed
+     * @see RestAssuredService#getObjectsAfter(java.util.List, Class, com.muzima.search.api.result.Cursor, Integer)
+     */
+    @Test
+    public void getObjectsAfter_shouldResumeTheQueryAfterChangesAreCommitted() throws Exception {
+        List<Filter> filters = Arrays.asList(FilterFactory.createFilter("givenName", "T*"));
+        Page<Patient> page = service.getObjectsAfter(filters, Patient.class, null, 2);
+        Assert.assertEquals(2, page.getObjects().size());
+
+        updateRemainingPatients(page.getObjects());
+        Page<Patient> nextPage = service.getObjectsAfter(filters, Patient.class, page.getCursor(), 2);
+        Assert.assertEquals(1, nextPage.getObjects().size());
+        for (Patient patient : page.getObjects()) {
+            Assert.assertFalse(patient.getUuid().equals(nextPage.getObjects().get(0).getUuid()));
+        }
+    }
+
+    /**
+     * @verifies throw IOException when the segments of the cursor were merged
+     * @see RestAssuredService#getObjectsAfter(java.util.List, Class, com.muzima.search.api.result.Cursor, Integer)
+     */
+    @Test(expected = IOException.class)
+    public void getObjectsAfter_shouldThrowIOExceptionWhenTheSegmentsOfTheCursorWereMerged() throws Exception {
+        List<Filter> filters = Arrays.asList(FilterFactory.createFilter("givenName", "T*"));
+        Page<Patient> page = service.getObjectsAfter(filters, Patient.class, null, 2);
+        Cursor cursor = page.getCursor();
+        Assert.assertNotNull(cursor);
+
+        updatePatientsTwice(page.getObjects());
+        IndexMaintainer indexMaintainer = injector.getInstance(IndexMaintainer.class);
+        indexMaintainer.setDeletes(0.0);
+        Assert.assertTrue(indexMaintainer.maintain());
+        service.getObjectsAfter(filters, Patient.class, cursor, 2);
+    }
+
+    /**
+     * Update the patients twice in a single batch. The flushed segment keeps the deleted first versions next to the
+     * live ones, while a segment whose documents are all deleted would be dropped on commit instead of being merged.
+     */
+    private void updatePatientsTwice(final List<Patient> patients) throws IOException {
+        List<Searchable> updates = new ArrayList<Searchable>();
+        updates.addAll(patients);
+        updates.addAll(patients);
+        service.updateObjects(updates, context.getResource(PATIENT_RESOURCE));
+    }
+
+    private void updateRemainingPatients(final List<Patient> returnedPatients) throws IOException {
+        Set<String> returnedUuids = new HashSet<String>();
+        for (Patient patient : returnedPatients) {
+            returnedUuids.add(patient.getUuid());
+        }
+        List<Searchable> remainingPatients = new ArrayList<Searchable>();
+        for (Patient patient : service.getObjects(Collections.<Filter>emptyList(), Patient.class)) {
+            if (!returnedUuids.contains(patient.getUuid())) {
+                remainingPatients.add(patient);
+            }
+        }
+        Assert.assertFalse(remainingPatients.isEmpty());
+        service.updateObjects(remainingPatients, context.getResource(PATIENT_RESOURCE));
+    }
+
+    /**
+     * @verifies return results sorted by sortable fields defined in resource configuration list across pages
+     * @see RestAssuredService#getSortedObjectsAfter(java.util.List, com.muzima.search.api.resource.Resource,
+     *      com.muzima.search.api.result.Cursor, Integer)
+     */
+    @Test
+    public void getSortedObjectsAfter_shouldReturnResultsSortedBySortableFieldsAcrossPages() throws Exception {
+        Resource resource = context.getResource(PATIENT_RESOURCE);
+        List<Filter> filters = Arrays.asList(FilterFactory.createFilter("givenName", "T*"));
+
+        List<Patient> patients = new ArrayList<Patient>();
+        Cursor cursor = null;
+        do {
+            Page<Searchable> page = service.getSortedObjectsAfter(filters, resource, cursor, 1);
+            Assert.assertEquals(1, page.getObjects().size());
+            patients.add((Patient) page.getObjects().get(0));
+            cursor = page.getCursor();
+        } while (cursor != null);
+        Assert.assertEquals(3, patients.size());
+
+        List<Patient> sortList = new ArrayList<Patient>(patients);
+        Collections.sort(sortList);
+        Assert.assertEquals(sortList, patients);
+    }
+
+    /**
+     * @verifies return all object matching the filters using the cached resource filter
+     * @see RestAssuredService#getObjects(java.util.List, com.muzima.search.api.resource.Resource)
+     */
+    @Test
+    public void getObjects_shouldReturnAllObjectMatchingTheFiltersUsingTheCachedResourceFilter() throws Exception {
+        FilterCache filterCache = injector.getInstance(FilterCache.class);
+        Resource resource = context.getResource(PATIENT_RESOURCE);
+        List<Filter> filters = Arrays.asList(FilterFactory.createFilter("givenName", "T*"));
+
+        Assert.assertEquals(3, service.getObjects(filters, resource).size());
+        long memoryUsage = filterCache.getMemoryUsage();
+        Assert.assertTrue(memoryUsage > 0);
+
+        service.deleteObjects(Arrays.asList(FilterFactory.createFilter("uuid", patientUuid)), Patient.class);
+        Assert.assertEquals(2, service.getObjects(filters, resource).size());
+    }
+
+    /**
+     * @verifies return pages in the same order as the unpaged objects
+     * @see RestAssuredService#getObjects(java.util.List, com.muzima.search.api.resource.Resource, Integer, Integer)
+     */
+    @Test
+    public void getObjects_shouldReturnPagesInTheSameOrderAsTheUnpagedObjects() throws Exception {
+        Resource resource = context.getResource(PATIENT_RESOURCE);
+        List<Filter> filters = Arrays.asList(FilterFactory.createFilter("givenName", "T*"));
+
+        List<Searchable> patients = service.getObjects(filters, resource);
+        List<Searchable> pagedPatients = new ArrayList<Searchable>();
+        for (int page = 1; page <= patients.size(); page++) {
+            pagedPatients.addAll(service.getObjects(filters, resource, page, 1));
+        }
+        Assert.assertEquals(patients.size(), pagedPatients.size());
+        for (int i = 0; i < patients.size(); i++) {
+            Assert.assertEquals(((Patient) patients.get(i)).getUuid(), ((Patient) pagedPatients.get(i)).getUuid());
+        }
+    }
+
+    /**
+     * @verifies return cached results for the same filters regardless of the filter order
+     * @see RestAssuredService#getObjects(java.util.List, com.muzima.search.api.resource.Resource, Integer, Integer)
+     */
+    @Test
+    public void getObjects_shouldReturnCachedResultsForTheSameFiltersRegardlessOfTheFilterOrder() throws Exception {
+        ResultCache resultCache = injector.getInstance(ResultCache.class);
+        resultCache.resetStatistics();
+
+        Resource resource = context.getResource(PATIENT_RESOURCE);
+        Filter givenNameFilter = FilterFactory.createFilter("givenName", "T*");
+        Filter uuidFilter = FilterFactory.createFilter("uuid", patientUuid);
+
+        List<Searchable> patients = service.getObjects(Arrays.asList(givenNameFilter, uuidFilter), resource, 1, 10);
+        Assert.assertEquals(1, patients.size());
+        Assert.assertEquals(0, resultCache.getHitCount());
+        Assert.assertEquals(1, resultCache.getMissCount());
+
+        patients = service.getObjects(Arrays.asList(uuidFilter, givenNameFilter), resource, 1, 10);
+        Assert.assertEquals(1, patients.size());
+        Assert.assertEquals(patientUuid, ((Patient) patients.get(0)).getUuid());
+        Assert.assertEquals(1, resultCache.getHitCount());
+        Assert.assertEquals(1, resultCache.getMissCount());
+    }
+
+    /**
+     * @verifies return the number of object matching the search query regardless of the filter order
+     * @see RestAssuredService#countObjects(java.util.List, Class)
+     */
+    @Test
+    public void countObjects_shouldReturnTheNumberOfObjectMatchingTheSearchQueryRegardlessOfTheFilterOrder()
+            throws Exception {
+        Filter givenNameFilter = FilterFactory.createFilter("givenName", "T*");
+        Filter uuidFilter = FilterFactory.createFilter("uuid", patientUuid);
+
+        Assert.assertEquals(3, service.countObjects(Arrays.asList(givenNameFilter), Patient.class).intValue());
+        Assert.assertEquals(1, service.countObjects(Arrays.asList(givenNameFilter, uuidFilter), Patient.class).intValue());
+        Assert.assertEquals(1, service.countObjects(Arrays.asList(uuidFilter, givenNameFilter), Patient.class).intValue());
+    }
+
+    /**
+     * @verifies not create duplicate objects with the same key
+     * @see RestAssuredService#createObjects(java.util.List, com.muzima.search.api.resource.Resource)
+     */
+    @Test
+    public void createObjects_shouldNotCreateDuplicateObjectsWithTheSameKey() throws Exception {
+        Resource resource = context.getResource(PATIENT_RESOURCE);
+        List<Filter> filters = Collections.emptyList();
+        int count = service.countObjects(filters, resource);
+
+        Patient patient = service.getObject(patientUuid, Patient.class);
+        service.createObjects(Arrays.<Searchable>asList(patient, patient), resource);
+        Assert.assertEquals(count, service.countObjects(filters, resource).intValue());
+
+        service.deleteObjects(Arrays.<Searchable>asList(patient), resource);
+        service.createObjects(Arrays.<Searchable>asList(patient, patient), resource);
+        Assert.assertEquals(count, service.countObjects(filters, resource).intValue());
+        Assert.assertTrue(service.objectExists(patientUuid, resource));
+    }
+
+    /**
+     * @verifies commit all operations of the batch
+     * @see RestAssuredService#writeObjects(com.muzima.search.api.model.object.WriteBatch)
+     */
+    @Test
+    public void writeObjects_shouldCommitAllOperationsOfTheBatch() throws Exception {
+        Resource resource = context.getResource(PATIENT_RESOURCE);
+        List<Filter> filters = Collections.emptyList();
+        int count = service.countObjects(filters, resource);
+
+        Patient patient = service.getObject(patientUuid, Patient.class);
+        Patient newPatient = new Patient();
+        newPatient.setUuid(UUID.randomUUID().toString());
+        newPatient.setGivenName("Batch");
+        newPatient.setFamilyName("Patient");
+
+        WriteBatch batch = new WriteBatch()
+                .createObjects(Arrays.asList(newPatient), resource)
+                .deleteObjects(Arrays.asList(patient), resource);
+        service.writeObjects(batch);
+
+        Assert.assertEquals(count, service.countObjects(filters, resource).intValue());
+        Assert.assertTrue(service.objectExists(newPatient.getUuid(), resource));
+        Assert.assertFalse(service.objectExists(patientUuid, resource));
+    }
+
+    /**
+     * @verifies create the objects deleted earlier in the batch
+     * @see RestAssuredService#writeObjects(com.muzima.search.api.model.object.WriteBatch)
+     */
+    @Test
+    public void writeObjects_shouldCreateTheObjectsDeletedEarlierInTheBatch() throws Exception {
+        Resource resource = context.getResource(PATIENT_RESOURCE);
+        List<Filter> filters = Collections.emptyList();
+        int count = service.countObjects(filters, resource);
+
+        Patient patient = service.getObject(patientUuid, Patient.class);
+        WriteBatch batch = new WriteBatch()
+                .deleteObjects(Arrays.asList(patient), resource)
+                .createObjects(Arrays.asList(patient), resource);
+        service.writeObjects(batch);
+
+        Assert.assertEquals(count, service.countObjects(filters, resource).intValue());
+        Assert.assertTrue(service.objectExists(patientUuid, resource));
+    }
+
+    /**
+     * @verifies roll back all operations of the batch when an operation fails
+     * @see RestAssuredService#writeObjects(com.muzima.search.api.model.object.WriteBatch)
+     */
+    @Test
+    public void writeObjects_shouldRollBackAllOperationsOfTheBatchWhenAnOperationFails() throws Exception {
+        Resource resource = context.getResource(PATIENT_RESOURCE);
+        List<Filter> filters = Collections.emptyList();
+        int count = service.countObjects(filters, resource);
+
+        Patient patient = service.getObject(patientUuid, Patient.class);
+        Patient newPatient = new Patient();
+        newPatient.setUuid(UUID.randomUUID().toString());
+
+        Searchable invalidObject = new Searchable() {
+        };
+        WriteBatch batch = new WriteBatch()
+                .createObjects(Arrays.asList(newPatient), resource)
+                .deleteObjects(Arrays.asList(patient), resource)
+                .updateObjects(Arrays.asList(invalidObject), resource);
+        try {
+            service.writeObjects(batch);
+            Assert.fail("Writing an invalid object should fail the batch.");
+        } catch (ClassCastException e) {
+            logger.info("Batch failed as expected: {}", e.getMessage());
+        }
+
+        Assert.assertEquals(count, service.countObjects(filters, resource).intValue());
+        Assert.assertFalse(service.objectExists(newPatient.getUuid(), resource));
+        Assert.assertTrue(service.objectExists(patientUuid, resource));
+
+        service.updateObjects(Arrays.<Searchable>asList(patient), resource);
+        Assert.assertEquals(count, service.countObjects(filters, resource).intValue());
+    }
+
+    /**
+     * @verifies import all objects into the local repository
+     * @see RestAssuredService#importObjects(java.util.List, com.muzima.search.api.resource.Resource)
+     */
+    @Test
+    public void importObjects_shouldImportAllObjectsIntoTheLocalRepository() throws Exception {
+        Resource resource = context.getResource(PATIENT_RESOURCE);
+        List<Filter> filters = Collections.emptyList();
+        List<Searchable> patients = service.getObjects(filters, resource);
+        service.deleteObjects(patients, resource);
+        Assert.assertEquals(0, service.countObjects(filters, resource).intValue());
+
+        List<Searchable> objects = new ArrayList<Searchable>();
+        for (int i = 0; i < 10; i++) {
+            objects.addAll(patients);
+        }
+        service.importObjects(objects, resource);
+        Assert.assertEquals(patients.size(), service.countObjects(filters, resource).intValue());
+        Assert.assertNotNull(service.getObject(patientUuid, resource));
+    }
+
+    /**
+     * @verifies discard the imported objects when an object fails
+     * @see RestAssuredService#importObjects(java.util.List, com.muzima.search.api.resource.Resource)
+     */
+    @Test
+    public void importObjects_shouldDiscardTheImportedObjectsWhenAnObjectFails() throws Exception {
+        Resource resource = context.getResource(PATIENT_RESOURCE);
+        List<Filter> filters = Collections.emptyList();
+        int count = service.countObjects(filters, resource);
+
+        List<Searchable> objects = new ArrayList<Searchable>();
+        for (int i = 0; i < 20; i++) {
+            Patient patient = new Patient();
+            patient.setUuid(UUID.randomUUID().toString());
+            patient.setGivenName("Import");
+            patient.setFamilyName("Patient");
+            objects.add(patient);
+        }
+        objects.add(new Searchable() {
+        });
+        try {
+            service.importObjects(objects, resource);
+            Assert.fail("Importing an invalid object should fail the import.");
+        } catch (IOException e) {
+            logger.info("Import failed as expected: {}", e.getMessage());
+        }
+
+        // an unrelated commit must not make the objects imported before the failure durable.
+        service.flush();
+        Assert.assertEquals(count, service.countObjects(filters, resource).intValue());
+        Assert.assertFalse(service.objectExists(((Patient) objects.get(0)).getUuid(), resource));
+        Assert.assertTrue(service.objectExists(patientUuid, resource));
+    }
+
+    /**
+     * @verifies remove the objects in the background
+     * @see RestAssuredService#deleteObjectsAsync(java.util.List, com.muzima.search.api.resource.Resource)
+     */
+    @Test
+    public void deleteObjectsAsync_shouldRemoveTheObjectsInTheBackground() throws Exception {
+        Resource resource = context.getResource(PATIENT_RESOURCE);
+        List<Filter> filters = Collections.emptyList();
+        List<Searchable> patients = service.getObjects(filters, resource);
+        Future<Void> future = service.deleteObjectsAsync(patients, resource);
+        future.get();
+        Assert.assertEquals(0, service.countObjects(filters, resource).intValue());
+    }
+
+    /**
+     * @verifies create the objects in the background
+     * @see RestAssuredService#createObjectsAsync(java.util.List, com.muzima.search.api.resource.Resource)
+     */
+    @Test
+    public void createObjectsAsync_shouldCreateTheObjectsInTheBackground() throws Exception {
+        Resource resource = context.getResource(PATIENT_RESOURCE);
+        List<Filter> filters = Collections.emptyList();
+        List<Searchable> patients = service.getObjects(filters, resource);
+        service.deleteObjects(patients, resource);
+
+        Future<Void> future = service.createObjectsAsync(patients, resource);
+        future.get();
+        Assert.assertTrue(future.isDone());
+        Assert.assertEquals(patients.size(), service.countObjects(filters, resource).intValue());
+        Assert.assertNotNull(service.getObject(patientUuid, resource));
+    }
+
+    /**
+     * @verifies update the objects in the background
+     * @see RestAssuredService#updateObjectsAsync(java.util.List, com.muzima.search.api.resource.Resource)
+     */
+    @Test
+    public void updateObjectsAsync_shouldUpdateTheObjectsInTheBackground() throws Exception {
+        Resource resource = context.getResource(PATIENT_RESOURCE);
+        List<Filter> filters = Collections.emptyList();
+        List<Searchable> patients = service.getObjects(filters, resource);
+        service.updateObjectsAsync(patients, resource).get();
+        Assert.assertEquals(patients.size(), service.countObjects(filters, resource).intValue());
+    }
+
+    /**
+     * @verifies wait for all queued changes to be committed
+     * @see RestAssuredService#flush()
+     */
+    @Test
+    public void flush_shouldWaitForAllQueuedChangesToBeCommitted() throws Exception {
+        Resource resource = context.getResource(PATIENT_RESOURCE);
+        List<Filter> filters = Collections.emptyList();
+        List<Searchable> patients = service.getObjects(filters, resource);
+        List<Future<Void>> futures = new ArrayList<Future<Void>>();
+        for (Searchable patient : patients) {
+            futures.add(service.deleteObjectsAsync(Arrays.asList(patient), resource));
+        }
+        service.flush();
+        for (Future<Void> future : futures) {
+            Assert.assertTrue(future.isDone());
+        }
+        Assert.assertEquals(0, service.countObjects(filters, resource).intValue());
+    }
+
+    /**
+     * @verifies commit the queued changes and reject asynchronous changes submitted after closing
+     * @see RestAssuredService#close()
+     */
+    @Test
+    public void close_shouldCommitTheQueuedChangesAndRejectAsynchronousChangesSubmittedAfterClosing()
+            throws Exception {
+        Resource resource = context.getResource(PATIENT_RESOURCE);
+        List<Filter> filters = Collections.emptyList();
+        List<Searchable> patients = service.getObjects(filters, resource);
+        Future<Void> future = service.deleteObjectsAsync(patients, resource);
+        service.close();
+        Assert.assertTrue(future.isDone());
+        Assert.assertEquals(0, service.countObjects(filters, resource).intValue());
+
+        try {
+            service.createObjectsAsync(patients, resource);
+            Assert.fail("Asynchronous changes must be rejected once the service is closed.");
+        } catch (IOException e) {
+            Assert.assertEquals(0, service.countObjects(filters, resource).intValue());
+        }
+    }
+
+    /**
+     * @verifies make all committed changes visible to the queries
+     * @see RestAssuredService#flush()
+     */
+    @Test
+    public void flush_shouldMakeAllCommittedChangesVisibleToTheQueries() throws Exception {
+        Resource resource = context.getResource(PATIENT_RESOURCE);
+        List<Filter> filters = Collections.emptyList();
+        List<Searchable> patients = service.getObjects(filters, resource);
+        Assert.assertFalse(patients.isEmpty());
+        service.deleteObjects(patients, resource);
+        service.flush();
+        Assert.assertEquals(0, service.countObjects(filters, resource).intValue());
+        Assert.assertTrue(service.getObjects(filters, resource).isEmpty());
+    }
+
+    /**
+     * @verifies make the queries of the calling thread see the committed changes
+     * @see RestAssuredService#setMaxStaleness(Long)
+     */
+    @Test
+    public void setMaxStaleness_shouldMakeTheQueriesOfTheCallingThreadSeeTheCommittedChanges() throws Exception {
+        injector.getInstance(SearcherRefresher.class).setInterval(60000L);
+        Resource resource = context.getResource(PATIENT_RESOURCE);
+        List<Filter> filters = Collections.emptyList();
+        List<Searchable> patients = service.getObjects(filters, resource);
+        Assert.assertFalse(patients.isEmpty());
+        service.setMaxStaleness(0L);
+        try {
+            service.deleteObjects(patients, resource);
+            Assert.assertEquals(0, service.countObjects(filters, resource).intValue());
+        } finally {
+            service.setMaxStaleness(null);
+        }
+    }
+
+    /**
+     * @verifies not duplicate the objects of a resource without unique field
+     * @see RestAssuredService#updateObjects(java.util.List, com.muzima.search.api.resource.Resource)
+     */
+    @Test
+    public void updateObjects_shouldNotDuplicateTheObjectsOfAResourceWithoutUniqueField() throws Exception {
+        Resource patientResource = context.getResource(PATIENT_RESOURCE);
+        Resource resource = new ObjectResource("Unkeyed Patient Resource", patientResource.getRootNode(),
+                patientResource.getSearchable(), patientResource.getAlgorithm(), patientResource.getResolver());
+        resource.addFieldDefinition("uuid", "$['uuid']", Boolean.FALSE);
+        resource.addFieldDefinition("givenName", "$['personName.givenName']", Boolean.FALSE);
+        resource.addFieldDefinition("familyName", "$['personName.familyName']", Boolean.FALSE);
+        context.registerResource(resource.getName(), resource);
+
+        List<Filter> filters = Collections.emptyList();
+        List<Searchable> patients = service.getObjects(filters, patientResource);
+        service.createObjects(patients, resource);
+        service.createObjects(patients, resource);
+        Assert.assertEquals(patients.size(), service.countObjects(filters, resource).intValue());
+
+        service.updateObjects(patients, resource);
+        service.updateObjects(patients, resource);
+        Assert.assertEquals(patients.size(), service.countObjects(filters, resource).intValue());
+
+        service.deleteObjects(patients, resource);
+        Assert.assertEquals(0, service.countObjects(filters, resource).intValue());
+        Assert.assertEquals(patients.size(), service.countObjects(filters, patientResource).intValue());
+    }
+
+    /**
+     * @verifies commit the changes of concurrent writers
+     * @see RestAssuredService#updateObjects(java.util.List, com.muzima.search.api.resource.Resource)
+     */
+    @Test
+    public void updateObjects_shouldCommitTheChangesOfConcurrentWriters() throws Exception {
+        final Resource resource = context.getResource(PATIENT_RESOURCE);
+        final List<Patient> patients = service.getObjects(Collections.<Filter>emptyList(), Patient.class);
+        final List<Exception> exceptions = Collections.synchronizedList(new ArrayList<Exception>());
+
+        List<Thread> threads = new ArrayList<Thread>();
+        for (final Patient patient : patients) {
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        service.updateObjects(Arrays.<Searchable>asList(patient), resource);
+                    } catch (Exception e) {
+                        exceptions.add(e);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertTrue(exceptions.isEmpty());
+        List<Filter> filters = Collections.emptyList();
+        Assert.assertEquals(patients.size(), service.countObjects(filters, Patient.class).intValue());
+    }
+
+    /**
+     * @verifies return updated count after objects are removed
+     * @see RestAssuredService#countObjects(java.util.List, com.muzima.search.api.resource.Resource)
+     */
+    @Test
+    public void countObjects_shouldReturnUpdatedCountAfterObjectsAreRemoved() throws Exception {
+        Resource resource = context.getResource(PATIENT_RESOURCE);
+        List<Filter> filters = Arrays.asList(FilterFactory.createFilter("givenName", "T*"));
+        Assert.assertEquals(3, service.countObjects(filters, resource).intValue());
+
+        service.deleteObjects(Arrays.asList(FilterFactory.createFilter("uuid", patientUuid)), Patient.class);
+        Assert.assertEquals(2, service.countObjects(filters, resource).intValue());
+    }
+
+    /**
+     * @verifies iterate over all object matching the search query and class
+     * @see RestAssuredService#iterateObjects(java.util.List, Class)
+     */
+    @Test
+    public void iterateObjects_shouldIterateOverAllObjectMatchingTheSearchQueryAndClass() throws Exception {
+        List<Filter> filters = Arrays.asList(FilterFactory.createFilter("givenName", "T*"));
+        ResultIterator<Patient> iterator = service.iterateObjects(filters, Patient.class);
+        try {
+            Assert.assertEquals(3, iterator.size());
+            Set<String> uuids = new HashSet<String>();
+            while (iterator.hasNext()) {
+                Patient patient = iterator.next();
+                Assert.assertNotNull(patient);
+                uuids.add(patient.getUuid());
+            }
+            Assert.assertEquals(3, uuids.size());
+            Assert.assertTrue(uuids.contains(patientUuid));
+        } finally {
+            iterator.close();
+        }
+        Assert.assertFalse(iterator.hasNext());
+    }
+
+    /**
+     * @verifies return the updated objects when the resource is cached
+     * @see RestAssuredService#iterateObjects(java.util.List, Class)
+     */
+    @Test
+    public void iterateObjects_shouldReturnTheUpdatedObjectsWhenTheResourceIsCached() throws Exception {
+        ObjectCache objectCache = injector.getInstance(ObjectCache.class);
+        objectCache.setMaximumSize(16);
+        objectCache.setResources(PATIENT_RESOURCE);
+
+        List<Filter> filters = Arrays.asList(FilterFactory.createFilter("uuid", patientUuid));
+        Patient patient = iterateFirstObject(filters);
+        Assert.assertSame(patient, iterateFirstObject(filters));
+
+        updateGivenName(patient, "Updatarius");
+        Assert.assertEquals("Updatarius", iterateFirstObject(filters).getGivenName());
+    }
+
+    private Patient iterateFirstObject(final List<Filter> filters) throws IOException {
+        ResultIterator<Patient> iterator = service.iterateObjects(filters, Patient.class);
+        try {
+            Assert.assertTrue(iterator.hasNext());
+            return iterator.next();
+        } finally {
+            iterator.close();
+        }
+    }
+
+    /**
+     * @verifies iterate over all object matching the search query and resource
+     * @see RestAssuredService#iterateObjects(java.util.List, com.muzima.search.api.resource.Resource)
+     */
+    @Test
+    public void iterateObjects_shouldIterateOverAllObjectMatchingTheSearchQueryAndResource() throws Exception {
+        Resource resource = context.getResource(PATIENT_RESOURCE);
+        List<Filter> filters = Arrays.asList(FilterFactory.createFilter("uuid", patientUuid));
+        ResultIterator<Searchable> iterator = service.iterateObjects(filters, resource);
+        try {
+            Assert.assertTrue(iterator.hasNext());
+            Patient patient = (Patient) iterator.next();
+            Assert.assertEquals(patientUuid, patient.getUuid());
+            Assert.assertFalse(iterator.hasNext());
+        } finally {
+            iterator.close();
+        }
+    }
+
+    /**
+     * @verifies iterate over the objects matching when the iterator was created
+     * @see RestAssuredService#iterateObjects(java.util.List, com.muzima.search.api.resource.Resource)
+     */
+    @Test
+    public void iterateObjects_shouldIterateOverTheObjectsMatchingWhenTheIteratorWasCreated() throws Exception {
+        Resource resource = context.getResource(PATIENT_RESOURCE);
+        List<Filter> filters = Collections.emptyList();
+        List<Searchable> patients = service.getObjects(filters, resource);
+        ResultIterator<Searchable> iterator = service.iterateObjects(filters, resource);
+        try {
+            service.deleteObjects(patients, resource);
+            Assert.assertEquals(0, service.countObjects(filters, resource).intValue());
+
+            int count = 0;
+            while (iterator.hasNext()) {
+                Assert.assertNotNull(iterator.next());
+                count++;
+            }
+            Assert.assertEquals(patients.size(), count);
+        } finally {
+            iterator.close();
+        }
+    }
+
     /**
      * @verifies return empty list when no object match the search string and resource
      * @see RestAssuredService#getObjects(String, com.muzima.search.api.resource.Resource)
@@ -410,6 +1221,26 @@ public class RestAssuredServiceTest {
         Assert.assertNull(afterDeletionPatient);
     }
 
+    /**
+     * @verifies remove all objects with the keys from the internal index system
+     * @see RestAssuredService#deleteObjects(java.util.Collection, com.muzima.search.api.resource.Resource)
+     */
+    @Test
+    public void deleteObjects_shouldRemoveAllObjectsWithTheKeysFromTheInternalIndexSystem() throws Exception {
+        Resource resource = context.getResource(PATIENT_RESOURCE);
+        List<Filter> filters = Collections.emptyList();
+        List<Patient> patients = service.getObjects(filters, Patient.class);
+        List<String> keys = new ArrayList<String>();
+        for (Patient patient : patients) {
+            keys.add(patient.getUuid().toUpperCase());
+        }
+        keys.add(UUID.randomUUID().toString());
+
+        service.deleteObjects(keys, resource);
+        Assert.assertEquals(0, service.countObjects(filters, resource).intValue());
+        Assert.assertNull(service.getObject(patientUuid, Patient.class));
+    }
+
     /**
      * @verifies remove an object from the internal index system
      * @see RestAssuredService#deleteObjects(java.util.List, com.muzima.search.api.resource.Resource)
@@ -426,4 +1257,78 @@ public class RestAssuredServiceTest {
         Patient afterDeletionPatient = service.getObject(patientUuid, Patient.class);
         Assert.assertNull(afterDeletionPatient);
     }
+
+    /**
+     * @verifies report the failure to the writers of every failed commit
+     * @see GroupCommitter#await(long, com.muzima.search.api.internal.lucene.GroupCommitter.Task)
+     */
+    @Test
+    public void await_shouldReportTheFailureToTheWritersOfEveryFailedCommit() throws Exception {
+        GroupCommitter groupCommitter = new GroupCommitter();
+        GroupCommitter.Task failingTask = new GroupCommitter.Task() {
+            @Override
+            public void commit() throws IOException {
+                throw new IOException("Commit failed.");
+            }
+        };
+        long first = groupCommitter.register(1);
+        long second = groupCommitter.register(1);
+        assertCommitFails(groupCommitter, failingTask);
+        long third = groupCommitter.register(1);
+        assertCommitFails(groupCommitter, failingTask);
+
+        // the writers of the first commit wake up after the second commit failed.
+        for (long ticket : new long[]{first, second, third}) {
+            try {
+                groupCommitter.await(ticket, failingTask);
+                Assert.fail("The failure of the commit covering ticket " + ticket + " was lost.");
+            } catch (IOException e) {
+                logger.info("Commit failed as expected: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void assertCommitFails(final GroupCommitter groupCommitter, final GroupCommitter.Task task) {
+        try {
+            groupCommitter.flush(task);
+            Assert.fail("The commit should have failed.");
+        } catch (IOException e) {
+            logger.info("Commit failed as expected: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @verifies reclaim the deleted documents of the updated objects
+     * @see IndexMaintainer#maintain()
+     */
+    @Test
+    public void maintain_shouldReclaimTheDeletedDocumentsOfTheUpdatedObjects() throws Exception {
+        List<Patient> patients = service.getObjects(Collections.<Filter>emptyList(), Patient.class);
+        updatePatientsTwice(patients.subList(0, 1));
+        service.flush();
+        Assert.assertTrue(countDeletedDocuments() > 0);
+
+        IndexMaintainer indexMaintainer = injector.getInstance(IndexMaintainer.class);
+        indexMaintainer.setDeletes(0.0);
+        Assert.assertTrue(indexMaintainer.maintain());
+        Assert.assertEquals(0, countDeletedDocuments());
+        Assert.assertEquals(patients.size(), service.getObjects(Collections.<Filter>emptyList(), Patient.class).size());
+    }
+
+    private int countDeletedDocuments() throws IOException {
+        int deleted = 0;
+        for (String partition : getPartitions()) {
+            Directory directory = injector.getInstance(DirectoryProvider.class).get(partition);
+            if (!IndexReader.indexExists(directory)) {
+                continue;
+            }
+            IndexReader reader = IndexReader.open(directory);
+            try {
+                deleted += reader.numDeletedDocs();
+            } finally {
+                reader.close();
+            }
+        }
+        return deleted;
+    }
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2014. The Trustees of Indiana University.
+ *
+ * This version of the code is licensed under the MPL 2.0 Open Source license with additional
+ * healthcare disclaimer. If the user is an entity intending to commercialize any application
+ * that uses this code in a for-profit venture, please contact the copyright holder.
+ */
+
+package com.muzima.search.api;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Singleton;
+import com.google.inject.util.Modules;
+import com.muzima.search.api.internal.lucene.Indexer;
+import com.muzima.search.api.internal.lucene.ShardedIndexer;
+import com.muzima.search.api.module.JUnitModule;
+import com.muzima.search.api.module.SearchModule;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Run the service tests with the documents split into the default number of shards.
+ */
+public class ShardedRestAssuredServiceTest extends RestAssuredServiceTest {
+
+    private static final int SHARDS = 4;
+
+    @Override
+    protected Injector createInjector() {
+        return Guice.createInjector(Modules.override(new SearchModule()).with(new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(Indexer.class)
+                        .to(ShardedIndexer.class)
+                        .in(Singleton.class);
+            }
+        }), new JUnitModule());
+    }
+
+    @Override
+    protected List<String> getPartitions() {
+        List<String> partitions = new ArrayList<String>();
+        for (int i = 0; i < SHARDS; i++) {
+            partitions.add("shard-" + i);
+        }
+        return partitions;
+    }
+}
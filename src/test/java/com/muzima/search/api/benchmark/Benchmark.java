@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2014. The Trustees of Indiana University.
+ *
+ * This version of the code is licensed under the MPL 2.0 Open Source license with additional
+ * healthcare disclaimer. If the user is an entity intending to commercialize any application
+ * that uses this code in a for-profit venture, please contact the copyright holder.
+ */
+
+package com.muzima.search.api.benchmark;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Base class of the micro benchmarks. The benchmarks are not executed as part of the unit tests, run them using the
+ * main method of the benchmark class with the test classpath.
+ */
+public abstract class Benchmark {
+
+    protected static final int DEFAULT_WARMUP_ITERATIONS = 5;
+
+    protected static final int DEFAULT_ITERATIONS = 20;
+
+    private final Logger logger = LoggerFactory.getLogger(getClass().getSimpleName());
+
+    /**
+     * Unit of work measured by the benchmark.
+     */
+    protected interface Task {
+
+        void run() throws Exception;
+    }
+
+    /**
+     * Run the task a number of times after warming it up and report the average time of a single run.
+     *
+     * @param label      the label of the task in the report.
+     * @param iterations the number of measured runs.
+     * @param task       the task.
+     * @return the average time of a single run in milliseconds.
+     * @throws Exception when the task failed.
+     */
+    protected double measure(final String label, final int iterations, final Task task) throws Exception {
+        for (int i = 0; i < DEFAULT_WARMUP_ITERATIONS; i++) {
+            task.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            task.run();
+        }
+        double average = (System.nanoTime() - start) / 1000000.0 / iterations;
+        logger.info(String.format("%-48s %10.3f ms/op", label, average));
+        return average;
+    }
+
+    /**
+     * Get the integer value of the program argument or the default value when the argument is not available.
+     *
+     * @param args         the program arguments.
+     * @param index        the index of the argument.
+     * @param defaultValue the default value.
+     * @return the value of the argument.
+     */
+    protected static int intArgument(final String[] args, final int index, final int defaultValue) {
+        if (args.length > index) {
+            return Integer.parseInt(args[index]);
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2014. The Trustees of Indiana University.
+ *
+ * This version of the code is licensed under the MPL 2.0 Open Source license with additional
+ * healthcare disclaimer. If the user is an entity intending to commercialize any application
+ * that uses this code in a for-profit venture, please contact the copyright holder.
+ */
+
+package com.muzima.search.api.benchmark;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.RAMDirectory;
+import org.apache.lucene.util.Version;
+
+/**
+ * Compare the latency of queries executed while a bulk writer continuously update the index, when the queries get
+ * their searcher under the lock held by the writer for the whole batch, and when the queries acquire the published
+ * searcher without taking any lock.
+ * <p/>
+ * Usage: <code>ContentionBenchmark [number of documents] [batch size]</code>
+ */
+public class ContentionBenchmark extends Benchmark {
+
+    private static final int DEFAULT_DOCUMENTS = 100000;
+
+    private static final int DEFAULT_BATCH_SIZE = 20000;
+
+    private static final int QUERIES = 100;
+
+    private static final int PAGE_SIZE = 20;
+
+    private final int documents;
+
+    private final int batchSize;
+
+    private final IndexWriter writer;
+
+    private final SearcherManager searcherManager;
+
+    private final Object writerLock = new Object();
+
+    private volatile boolean writing;
+
+    public ContentionBenchmark(final int documents, final int batchSize) throws Exception {
+        this.documents = documents;
+        this.batchSize = batchSize;
+        RAMDirectory directory = new RAMDirectory();
+        IndexWriterConfig config = new IndexWriterConfig(Version.LUCENE_36, new StandardAnalyzer(Version.LUCENE_36));
+        writer = new IndexWriter(directory, config);
+        for (int i = 0; i < documents; i++) {
+            writer.addDocument(createDocument(i, 0));
+        }
+        writer.commit();
+        searcherManager = new SearcherManager(directory, new SearcherFactory());
+    }
+
+    private Document createDocument(final int id, final int revision) {
+        Document document = new Document();
+        document.add(new Field("uuid", "uuid-" + id, Field.Store.YES, Field.Index.NOT_ANALYZED));
+        document.add(new Field("givenName", "name-" + (id % 5000), Field.Store.NO, Field.Index.NOT_ANALYZED));
+        document.add(new Field("revision", String.valueOf(revision), Field.Store.YES, Field.Index.NO));
+        return document;
+    }
+
+    private Thread startWriter() {
+        writing = true;
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                int revision = 0;
+                try {
+                    while (writing) {
+                        revision++;
+                        synchronized (writerLock) {
+                            for (int i = 0; i < batchSize && writing; i++) {
+                                int id = (revision * batchSize + i) % documents;
+                                writer.updateDocument(new Term("uuid", "uuid-" + id), createDocument(id, revision));
+                            }
+                            writer.commit();
+                            searcherManager.maybeRefresh();
+                        }
+                    }
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private void query(final boolean locked, final Query query) throws Exception {
+        IndexSearcher searcher;
+        if (locked) {
+            synchronized (writerLock) {
+                searcher = searcherManager.acquire();
+            }
+        } else {
+            searcher = searcherManager.acquire();
+        }
+        try {
+            searcher.search(query, PAGE_SIZE);
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    private void measure(final String label, final boolean locked) throws Exception {
+        final Query query = new TermQuery(new Term("givenName", "name-42"));
+        Thread writerThread = startWriter();
+        try {
+            measure(label, DEFAULT_ITERATIONS, new Task() {
+                @Override
+                public void run() throws Exception {
+                    for (int i = 0; i < QUERIES; i++) {
+                        query(locked, query);
+                    }
+                }
+            });
+        } finally {
+            writing = false;
+            writerThread.join();
+        }
+    }
+
+    public void run() throws Exception {
+        measure(QUERIES + " queries, searcher under the writer lock", true);
+        measure(QUERIES + " queries, lock free searcher", false);
+        searcherManager.close();
+        writer.close();
+    }
+
+    public static void main(final String[] args) throws Exception {
+        int documents = intArgument(args, 0, DEFAULT_DOCUMENTS);
+        int batchSize = intArgument(args, 1, DEFAULT_BATCH_SIZE);
+        new ContentionBenchmark(documents, batchSize).run();
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2014. The Trustees of Indiana University.
+ *
+ * This version of the code is licensed under the MPL 2.0 Open Source license with additional
+ * healthcare disclaimer. If the user is an entity intending to commercialize any application
+ * that uses this code in a for-profit venture, please contact the copyright holder.
+ */
+
+package com.muzima.search.api.benchmark;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.ConstantScoreQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.WildcardQuery;
+import org.apache.lucene.store.RAMDirectory;
+import org.apache.lucene.util.Version;
+
+/**
+ * Compare the scoring execution of filter only queries with the non scoring, index ordered execution.
+ * <p/>
+ * Usage: <code>FilterQueryBenchmark [number of documents]</code>
+ */
+public class FilterQueryBenchmark extends Benchmark {
+
+    private static final int DEFAULT_DOCUMENTS = 200000;
+
+    private static final int LOCATIONS = 20;
+
+    private static final int PAGE_SIZE = 20;
+
+    private final IndexSearcher searcher;
+
+    public FilterQueryBenchmark(final int documents) throws Exception {
+        RAMDirectory directory = new RAMDirectory();
+        IndexWriterConfig config = new IndexWriterConfig(Version.LUCENE_36, new StandardAnalyzer(Version.LUCENE_36));
+        IndexWriter writer = new IndexWriter(directory, config);
+        for (int i = 0; i < documents; i++) {
+            Document document = new Document();
+            document.add(new Field("_class", "Patient", Field.Store.NO, Field.Index.NOT_ANALYZED));
+            document.add(new Field("location", "location-" + (i % LOCATIONS), Field.Store.NO,
+                    Field.Index.NOT_ANALYZED));
+            document.add(new Field("givenName", "name-" + (i % 1000), Field.Store.NO, Field.Index.NOT_ANALYZED));
+            writer.addDocument(document);
+        }
+        writer.close();
+        searcher = new IndexSearcher(IndexReader.open(directory));
+    }
+
+    private BooleanQuery createQuery() {
+        BooleanQuery query = new BooleanQuery();
+        query.add(new TermQuery(new Term("_class", "Patient")), BooleanClause.Occur.MUST);
+        query.add(new TermQuery(new Term("location", "location-1")), BooleanClause.Occur.MUST);
+        query.add(new WildcardQuery(new Term("givenName", "name-1*")), BooleanClause.Occur.MUST);
+        return query;
+    }
+
+    public void run() throws Exception {
+        final Query scoring = createQuery();
+        final Query constantScore = new ConstantScoreQuery(createQuery());
+        final int hits = searcher.search(scoring, 1).totalHits;
+
+        measure("all hits, scoring", DEFAULT_ITERATIONS, new Task() {
+            @Override
+            public void run() throws Exception {
+                searcher.search(scoring, hits);
+            }
+        });
+        measure("all hits, constant score in index order", DEFAULT_ITERATIONS, new Task() {
+            @Override
+            public void run() throws Exception {
+                searcher.search(constantScore, null, hits, Sort.INDEXORDER);
+            }
+        });
+        measure("first page, scoring", DEFAULT_ITERATIONS, new Task() {
+            @Override
+            public void run() throws Exception {
+                searcher.search(scoring, PAGE_SIZE);
+            }
+        });
+        measure("first page, constant score in index order", DEFAULT_ITERATIONS, new Task() {
+            @Override
+            public void run() throws Exception {
+                searcher.search(constantScore, null, PAGE_SIZE, Sort.INDEXORDER);
+            }
+        });
+    }
+
+    public static void main(final String[] args) throws Exception {
+        new FilterQueryBenchmark(intArgument(args, 0, DEFAULT_DOCUMENTS)).run();
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2014. The Trustees of Indiana University.
+ *
+ * This version of the code is licensed under the MPL 2.0 Open Source license with additional
+ * healthcare disclaimer. If the user is an entity intending to commercialize any application
+ * that uses this code in a for-profit venture, please contact the copyright holder.
+ */
+
+package com.muzima.search.api.benchmark;
+
+import com.jayway.jsonpath.JsonPath;
+import com.muzima.search.api.resource.SearchableField;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.store.RAMDirectory;
+import org.apache.lucene.util.Version;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compare indexing a multi field resource when the searchable field expressions are parsed for every document with
+ * indexing using the expressions compiled once by the searchable field.
+ * <p/>
+ * Usage: <code>JsonPathBenchmark [number of documents]</code>
+ */
+public class JsonPathBenchmark extends Benchmark {
+
+    private static final int DEFAULT_DOCUMENTS = 10000;
+
+    private static final String[][] FIELDS = {
+            {"uuid", "$['uuid']"},
+            {"identifier", "$['patientIdentifier.identifier']"},
+            {"givenName", "$['personName.givenName']"},
+            {"middleName", "$['personName.middleName']"},
+            {"familyName", "$['personName.familyName']"},
+            {"gender", "$['gender']"},
+            {"birthdate", "$['birthdate']"},
+            {"location", "$['location.name']"}
+    };
+
+    private final List<Object> objects = new ArrayList<Object>();
+
+    private final List<SearchableField> searchableFields = new ArrayList<SearchableField>();
+
+    public JsonPathBenchmark(final int documents) {
+        for (int i = 0; i < documents; i++) {
+            String json = "{\"uuid\":\"uuid-" + i + "\",\"patientIdentifier.identifier\":\"" + (100000 + i) + "\","
+                    + "\"personName.givenName\":\"given-" + (i % 1000) + "\",\"personName.middleName\":\"middle\","
+                    + "\"personName.familyName\":\"family-" + (i % 500) + "\",\"gender\":\"" + (i % 2 == 0 ? "M" : "F")
+                    + "\",\"birthdate\":\"1970-01-01\",\"location.name\":\"location-" + (i % 20) + "\"}";
+            objects.add(JsonPath.read(json, "$"));
+        }
+        for (String[] field : FIELDS) {
+            searchableFields.add(new SearchableField(field[0], field[1], Boolean.FALSE));
+        }
+    }
+
+    private void index(final boolean compiled) throws Exception {
+        IndexWriterConfig config = new IndexWriterConfig(Version.LUCENE_36, new StandardAnalyzer(Version.LUCENE_36));
+        IndexWriter writer = new IndexWriter(new RAMDirectory(), config);
+        for (Object object : objects) {
+            Document document = new Document();
+            for (SearchableField searchableField : searchableFields) {
+                Object value;
+                if (compiled) {
+                    value = searchableField.getPath().read(object);
+                } else {
+                    value = JsonPath.read(object, searchableField.getExpression());
+                }
+                document.add(new Field(searchableField.getName(), String.valueOf(value), Field.Store.NO,
+                        Field.Index.NOT_ANALYZED));
+            }
+            writer.addDocument(document);
+        }
+        writer.close();
+    }
+
+    private void extract(final boolean compiled) {
+        for (Object object : objects) {
+            for (SearchableField searchableField : searchableFields) {
+                if (compiled) {
+                    searchableField.getPath().read(object);
+                } else {
+                    JsonPath.read(object, searchableField.getExpression());
+                }
+            }
+        }
+    }
+
+    public void run() throws Exception {
+        measure("extract values, parse expressions", DEFAULT_ITERATIONS, new Task() {
+            @Override
+            public void run() throws Exception {
+                extract(false);
+            }
+        });
+        measure("extract values, compiled expressions", DEFAULT_ITERATIONS, new Task() {
+            @Override
+            public void run() throws Exception {
+                extract(true);
+            }
+        });
+        measure("index documents, parse expressions", DEFAULT_ITERATIONS, new Task() {
+            @Override
+            public void run() throws Exception {
+                index(false);
+            }
+        });
+        measure("index documents, compiled expressions", DEFAULT_ITERATIONS, new Task() {
+            @Override
+            public void run() throws Exception {
+                index(true);
+            }
+        });
+    }
+
+    public static void main(final String[] args) throws Exception {
+        new JsonPathBenchmark(intArgument(args, 0, DEFAULT_DOCUMENTS)).run();
+    }
+}
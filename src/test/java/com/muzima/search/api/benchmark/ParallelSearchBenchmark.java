@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2014. The Trustees of Indiana University.
+ *
+ * This version of the code is licensed under the MPL 2.0 Open Source license with additional
+ * healthcare disclaimer. If the user is an entity intending to commercialize any application
+ * that uses this code in a for-profit venture, please contact the copyright holder.
+ */
+
+package com.muzima.search.api.benchmark;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.WildcardQuery;
+import org.apache.lucene.store.RAMDirectory;
+import org.apache.lucene.util.Version;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Compare the latency of searching a multi segment index on the calling thread with searching the segments
+ * concurrently using a thread pool of increasing size.
+ * <p/>
+ * Usage: <code>ParallelSearchBenchmark [number of documents] [number of segments]</code>
+ */
+public class ParallelSearchBenchmark extends Benchmark {
+
+    private static final int DEFAULT_DOCUMENTS = 400000;
+
+    private static final int DEFAULT_SEGMENTS = 16;
+
+    private static final int PAGE_SIZE = 20;
+
+    private final IndexReader reader;
+
+    public ParallelSearchBenchmark(final int documents, final int segments) throws Exception {
+        RAMDirectory directory = new RAMDirectory();
+        IndexWriterConfig config = new IndexWriterConfig(Version.LUCENE_36, new StandardAnalyzer(Version.LUCENE_36));
+        config.setMergePolicy(NoMergePolicy.NO_COMPOUND_FILES);
+        IndexWriter writer = new IndexWriter(directory, config);
+        int segmentSize = Math.max(1, documents / segments);
+        for (int i = 0; i < documents; i++) {
+            Document document = new Document();
+            document.add(new Field("_class", "Patient", Field.Store.NO, Field.Index.NOT_ANALYZED));
+            document.add(new Field("givenName", "name-" + (i % 5000), Field.Store.NO, Field.Index.NOT_ANALYZED));
+            document.add(new Field("familyName", "family-" + (i % 7919), Field.Store.NO, Field.Index.NOT_ANALYZED));
+            writer.addDocument(document);
+            if ((i + 1) % segmentSize == 0) {
+                writer.commit();
+            }
+        }
+        writer.close();
+        reader = IndexReader.open(directory);
+    }
+
+    private Query createQuery() {
+        BooleanQuery query = new BooleanQuery();
+        query.add(new TermQuery(new Term("_class", "Patient")), BooleanClause.Occur.MUST);
+        query.add(new WildcardQuery(new Term("givenName", "name-1*")), BooleanClause.Occur.MUST);
+        return query;
+    }
+
+    private void measure(final String label, final IndexSearcher searcher) throws Exception {
+        final Query query = createQuery();
+        final Sort sort = new Sort(new SortField("familyName", SortField.STRING));
+        measure(label + ", relevance", DEFAULT_ITERATIONS, new Task() {
+            @Override
+            public void run() throws Exception {
+                searcher.search(query, PAGE_SIZE);
+            }
+        });
+        measure(label + ", sorted", DEFAULT_ITERATIONS, new Task() {
+            @Override
+            public void run() throws Exception {
+                searcher.search(query, null, PAGE_SIZE, sort);
+            }
+        });
+    }
+
+    public void run() throws Exception {
+        measure("calling thread", new IndexSearcher(reader));
+        int processors = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= processors; threads *= 2) {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                measure(threads + " search threads", new IndexSearcher(reader, executor));
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
+
+    public static void main(final String[] args) throws Exception {
+        int documents = intArgument(args, 0, DEFAULT_DOCUMENTS);
+        int segments = intArgument(args, 1, DEFAULT_SEGMENTS);
+        new ParallelSearchBenchmark(documents, segments).run();
+    }
+}
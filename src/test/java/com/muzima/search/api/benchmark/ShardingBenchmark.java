@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2014. The Trustees of Indiana University.
+ *
+ * This version of the code is licensed under the MPL 2.0 Open Source license with additional
+ * healthcare disclaimer. If the user is an entity intending to commercialize any application
+ * that uses this code in a for-profit venture, please contact the copyright holder.
+ */
+
+package com.muzima.search.api.benchmark;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.MultiReader;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TotalHitCountCollector;
+import org.apache.lucene.search.WildcardQuery;
+import org.apache.lucene.store.RAMDirectory;
+import org.apache.lucene.util.Version;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Compare the latency of queries on a generated corpus of observations split by the hash of the primary key into an
+ * increasing number of shards. The shards are searched concurrently, the top documents are merged by the searcher and
+ * the counts of the shards are summed, the same way the sharded indexer does.
+ * <p/>
+ * Usage: <code>ShardingBenchmark [number of documents] [maximum number of shards]</code>
+ */
+public class ShardingBenchmark extends Benchmark {
+
+    private static final int DEFAULT_DOCUMENTS = 1000000;
+
+    private static final int DEFAULT_MAX_SHARDS = 8;
+
+    private static final int PAGE_SIZE = 20;
+
+    private final int documents;
+
+    private final int maxShards;
+
+    private final ExecutorService executor;
+
+    public ShardingBenchmark(final int documents, final int maxShards) {
+        this.documents = documents;
+        this.maxShards = maxShards;
+        this.executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    private Document createDocument(final int id) {
+        Document document = new Document();
+        document.add(new Field("_key", "observation-" + id, Field.Store.NO, Field.Index.NOT_ANALYZED_NO_NORMS));
+        document.add(new Field("_resource", "Observation", Field.Store.NO, Field.Index.NOT_ANALYZED));
+        document.add(new Field("patient", "patient-" + (id % 50000), Field.Store.NO, Field.Index.NOT_ANALYZED));
+        document.add(new Field("concept", "concept-" + (id % 1000), Field.Store.NO, Field.Index.NOT_ANALYZED));
+        document.add(new Field("date", String.format("%08d", id % 86413), Field.Store.NO, Field.Index.NOT_ANALYZED));
+        return document;
+    }
+
+    private IndexReader[] createShards(final int shards) throws Exception {
+        IndexWriter[] writers = new IndexWriter[shards];
+        RAMDirectory[] directories = new RAMDirectory[shards];
+        for (int i = 0; i < shards; i++) {
+            directories[i] = new RAMDirectory();
+            writers[i] = new IndexWriter(directories[i],
+                    new IndexWriterConfig(Version.LUCENE_36, new StandardAnalyzer(Version.LUCENE_36)));
+        }
+        for (int i = 0; i < documents; i++) {
+            String key = "observation-" + i;
+            writers[(key.hashCode() & Integer.MAX_VALUE) % shards].addDocument(createDocument(i));
+        }
+        IndexReader[] readers = new IndexReader[shards];
+        for (int i = 0; i < shards; i++) {
+            writers[i].close();
+            readers[i] = IndexReader.open(directories[i]);
+        }
+        return readers;
+    }
+
+    private Query createQuery() {
+        BooleanQuery query = new BooleanQuery();
+        query.add(new TermQuery(new Term("_resource", "Observation")), BooleanClause.Occur.MUST);
+        query.add(new WildcardQuery(new Term("concept", "concept-1*")), BooleanClause.Occur.MUST);
+        return query;
+    }
+
+    private int count(final IndexReader[] readers, final Query query) throws Exception {
+        List<Future<Integer>> counts = new ArrayList<Future<Integer>>();
+        for (final IndexReader reader : readers) {
+            counts.add(executor.submit(new Callable<Integer>() {
+                @Override
+                public Integer call() throws Exception {
+                    TotalHitCountCollector collector = new TotalHitCountCollector();
+                    new IndexSearcher(reader).search(query, collector);
+                    return collector.getTotalHits();
+                }
+            }));
+        }
+        int total = 0;
+        for (Future<Integer> count : counts) {
+            total += count.get();
+        }
+        return total;
+    }
+
+    private void measure(final int shards) throws Exception {
+        final IndexReader[] readers = createShards(shards);
+        final IndexSearcher searcher = new IndexSearcher(new MultiReader(readers), executor);
+        final Query query = createQuery();
+        final Sort sort = new Sort(new SortField("date", SortField.STRING));
+        String label = shards + " shards of " + (documents / shards) + " documents";
+        measure(label + ", relevance", DEFAULT_ITERATIONS, new Task() {
+            @Override
+            public void run() throws Exception {
+                searcher.search(query, PAGE_SIZE);
+            }
+        });
+        measure(label + ", sorted page", DEFAULT_ITERATIONS, new Task() {
+            @Override
+            public void run() throws Exception {
+                searcher.search(query, null, 10 * PAGE_SIZE, sort);
+            }
+        });
+        measure(label + ", count", DEFAULT_ITERATIONS, new Task() {
+            @Override
+            public void run() throws Exception {
+                count(readers, query);
+            }
+        });
+        searcher.close();
+        searcher.getIndexReader().close();
+    }
+
+    public void run() throws Exception {
+        try {
+            for (int shards = 1; shards <= maxShards; shards *= 2) {
+                measure(shards);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public static void main(final String[] args) throws Exception {
+        int documents = intArgument(args, 0, DEFAULT_DOCUMENTS);
+        int maxShards = intArgument(args, 1, DEFAULT_MAX_SHARDS);
+        new ShardingBenchmark(documents, maxShards).run();
+    }
+}
@@ -10,13 +10,13 @@ package com.muzima.search.api.sample.algorithm;
 
 import com.jayway.jsonpath.JsonPath;
 import com.muzima.search.api.model.object.Searchable;
-import com.muzima.search.api.model.serialization.Algorithm;
+import com.muzima.search.api.model.serialization.TreeAlgorithm;
 import com.muzima.search.api.sample.domain.Patient;
 import net.minidev.json.JSONObject;
 
 import java.io.IOException;
 
-public class PatientAlgorithm implements Algorithm {
+public class PatientAlgorithm implements TreeAlgorithm {
 
     /**
      * Implementation of this method will define how the patient will be serialized from the JSON representation.
@@ -61,6 +61,17 @@ public class PatientAlgorithm implements Algorithm {
      */
     @Override
     public String serialize(final Searchable object, final boolean isFullSerialization) throws IOException {
+        return serializeTree(object, isFullSerialization).toString();
+    }
+
+    /**
+     * Implementation of this method will define how the patient will be deserialized into the JSON tree.
+     *
+     * @param object the patient
+     * @return the json tree representation
+     */
+    @Override
+    public Object serializeTree(final Searchable object, final boolean isFullSerialization) throws IOException {
         Patient patient = (Patient) object;
         JSONObject jsonObject = new JSONObject();
         jsonObject.put("uuid", patient.getUuid());
@@ -69,6 +80,6 @@ public class PatientAlgorithm implements Algorithm {
         jsonObject.put("personName.familyName", patient.getFamilyName());
         jsonObject.put("patientIdentifier.identifier", patient.getIdentifier());
         jsonObject.put("gender", patient.getGender());
-        return jsonObject.toJSONString();
+        return jsonObject;
     }
 }